@@ -0,0 +1,47 @@
+package benchmarks;
+
+import config.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config lookups hit on every wait and driver creation: plain strings, parsed ints and booleans, and a missing
+ * key falling back to its default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Dtimeline.enabled=false")
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String get() {
+        return ConfigReader.get("base.url.shop");
+    }
+
+    @Benchmark
+    public int getInt() {
+        return ConfigReader.getInt("explicit.wait", 10);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return ConfigReader.getBoolean("driver.pool.enabled", false);
+    }
+
+    @Benchmark
+    public String getMissingWithDefault() {
+        return ConfigReader.get("benchmark.missing.key", "default");
+    }
+}
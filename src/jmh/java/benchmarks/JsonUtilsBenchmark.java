@@ -0,0 +1,65 @@
+package benchmarks;
+
+import models.BillingAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.JsonKey;
+import utils.JsonUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test data lookups as the tests use them: single values by string path and by compiled key,
+ * batch lookups, DataProvider flattening and POJO mapping. Files are read from src/test/resources/testdata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Dtimeline.enabled=false")
+public class JsonUtilsBenchmark {
+
+    private static final String CHECKOUT_DATA = "checkoutTestData";
+    private static final String REGISTER_DATA = "registerTestData";
+
+    private static final JsonKey FIRST_NAME = JsonKey.compile("billingAddress.firstName");
+    private static final JsonKey CREDIT_CARD = JsonKey.compile("creditCardInfo");
+    private static final JsonKey CARD_NUMBER = CREDIT_CARD.child("cardNumber");
+    private static final JsonKey CARD_HOLDER = CREDIT_CARD.child("cardholderName");
+    private static final JsonKey CARD_TYPE = CREDIT_CARD.child("creditCardType");
+
+    @Benchmark
+    public String getValueByPath() {
+        return JsonUtils.getValue(CHECKOUT_DATA, "billingAddress.firstName");
+    }
+
+    @Benchmark
+    public String getValueByKey() {
+        return JsonUtils.getValue(CHECKOUT_DATA, FIRST_NAME);
+    }
+
+    @Benchmark
+    public Map<String, String> getValues() {
+        return JsonUtils.getValues(CHECKOUT_DATA, CARD_TYPE, CARD_HOLDER, CARD_NUMBER);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> getJsonAsListOfMap() {
+        return JsonUtils.getJsonAsListOfMap(REGISTER_DATA);
+    }
+
+    @Benchmark
+    public BillingAddress readJson() {
+        return JsonUtils.readJson(CHECKOUT_DATA, "billingAddress", BillingAddress.class);
+    }
+}
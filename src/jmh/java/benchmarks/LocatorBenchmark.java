@@ -0,0 +1,52 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dynamic locator building as done in the page objects (e.g. ShoppingCartPage), which format an XPath template
+ * with the product name on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Dtimeline.enabled=false")
+public class LocatorBenchmark {
+
+    // Same template as ShoppingCartPage's remove button
+    private static final String REMOVE_BUTTON =
+            "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='remove-from-cart']//button";
+    private static final String PREFIX = REMOVE_BUTTON.substring(0, REMOVE_BUTTON.indexOf("%s"));
+    private static final String SUFFIX = REMOVE_BUTTON.substring(REMOVE_BUTTON.indexOf("%s") + 2);
+
+    @Param({"Apple MacBook Pro", "Build your own computer"})
+    public String productName;
+
+    @Benchmark
+    public By stringFormat() {
+        return By.xpath(String.format(REMOVE_BUTTON, productName));
+    }
+
+    @Benchmark
+    public By formatted() {
+        return By.xpath(REMOVE_BUTTON.formatted(productName));
+    }
+
+    @Benchmark
+    public By concatenation() {
+        return By.xpath(PREFIX + productName + SUFFIX);
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import config.ConfigReader;
+import driver.DriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+import utils.WaitUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wait latency of the polling and the observer wait backends against a real browser (headless, see
+ * browser.profile): an element is shown or hidden {@code delayMs} after the wait starts, so the score minus the
+ * delay is the time the backend needs to notice the change.
+ * <p>
+ * Needs a local browser, unlike the other benchmarks:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=WaitBackendBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgs = {"-Dtimeline.enabled=false", "-Dbrowser.profile=FAST_HEADLESS"})
+public class WaitBackendBenchmark {
+
+    private static final String PAGE = "data:text/html,<html><body><div id='host'></div></body></html>";
+    private static final String SCHEDULE_SHOW = """
+            var host = document.getElementById('host');
+            host.innerHTML = '';
+            setTimeout(function () { host.innerHTML = '<button id="late">Ready</button>'; }, arguments[0]);
+            """;
+    private static final String SCHEDULE_HIDE = """
+            var host = document.getElementById('host');
+            host.innerHTML = '<button id="late">Ready</button>';
+            setTimeout(function () { document.getElementById('late').style.display = 'none'; }, arguments[0]);
+            """;
+
+    @Param({"poll", "observer"})
+    public String backend;
+
+    @Param({"50", "250"})
+    public long delayMs;
+
+    private final By cssLocator = By.id("late");
+    private final By xpathLocator = By.xpath("//div[@id='host']/button[text()='Ready']");
+    private JavascriptExecutor js;
+
+    @Setup(Level.Trial)
+    public void openBrowser() {
+        System.setProperty("wait.backend", backend);
+        DriverManager.createDriver(ConfigReader.get("browser"));
+        DriverManager.getDriver().get(PAGE);
+        js = (JavascriptExecutor) DriverManager.getDriver();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeBrowser() {
+        DriverManager.quitDriver();
+        System.clearProperty("wait.backend");
+    }
+
+    @Benchmark
+    public WebElement appearById() {
+        js.executeScript(SCHEDULE_SHOW, delayMs);
+        return WaitUtils.waitForElementToBeVisible(cssLocator);
+    }
+
+    @Benchmark
+    public WebElement appearByXpath() {
+        js.executeScript(SCHEDULE_SHOW, delayMs);
+        return WaitUtils.waitForElementToBeVisible(xpathLocator);
+    }
+
+    @Benchmark
+    public Boolean disappear() {
+        js.executeScript(SCHEDULE_HIDE, delayMs);
+        return WaitUtils.waitForElementToBeInvisible(cssLocator);
+    }
+}
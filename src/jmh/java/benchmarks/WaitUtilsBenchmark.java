@@ -0,0 +1,73 @@
+package benchmarks;
+
+import driver.DriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.WaitUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework-side cost of a wait whose condition is already satisfied, against {@link StubWebDriver}:
+ * raw condition evaluation, a fresh WebDriverWait per call (the old WaitUtils behaviour) and the
+ * per-thread WaitEngine used by WaitUtils today.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Dtimeline.enabled=false")
+public class WaitUtilsBenchmark {
+
+    private final By locator = By.cssSelector("button#checkout");
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void bindDriver() {
+        driver = new StubWebDriver();
+        DriverManager.setDriver(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void unbindDriver() {
+        DriverManager.quitDriver();
+    }
+
+    @Benchmark
+    public Boolean conditionVisibleAndClickable() {
+        return WaitUtils.visibleAndClickable(locator).apply(driver) != null;
+    }
+
+    @Benchmark
+    public WebElement conditionVisibilityThenClickable() {
+        ExpectedConditions.visibilityOfElementLocated(locator).apply(driver);
+        return ExpectedConditions.elementToBeClickable(locator).apply(driver);
+    }
+
+    @Benchmark
+    public WebElement newWebDriverWaitPerCall() {
+        return new WebDriverWait(driver, Duration.ofSeconds(10)).until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    @Benchmark
+    public WebElement waitUtilsClickable() {
+        return WaitUtils.waitForElementToBeClickable(locator);
+    }
+}
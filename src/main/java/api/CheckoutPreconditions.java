@@ -0,0 +1,126 @@
+package api;
+
+import config.ConfigReader;
+import driver.DriverManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pages.shop.CheckoutPage;
+import pages.shop.ProductDetailPage;
+import pages.shop.ShoppingCartPage;
+import utils.ExecutionTimeline;
+import utils.WaitUtils;
+
+import java.net.HttpCookie;
+import java.util.List;
+
+/**
+ * Checkout test precondition: a signed-in customer with products in the cart, standing on the checkout page.
+ * <p>
+ * With precondition.mode=http the customer is signed in and the cart is seeded through {@link StorefrontClient},
+ * the session cookies are copied into the current thread's browser and the browser opens /onepagecheckout
+ * directly. If any HTTP step fails the precondition falls back to the UI flow (log in, add each product, agree to
+ * the terms and check out), which is also used with precondition.mode=ui. A failure after the login first empties
+ * the customer's cart over HTTP, since nopCommerce keeps the cart per customer and the UI flow would add the same
+ * products again.
+ */
+public class CheckoutPreconditions {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutPreconditions.class);
+
+    private CheckoutPreconditions() {
+    }
+
+    public static boolean isHttpMode() {
+        return ConfigReader.get("precondition.mode", "http").equalsIgnoreCase("http");
+    }
+
+    /**
+     * Signs the customer in, adds one unit of each product to the cart and opens the checkout page.
+     * The browser must already be on the storefront (base.url.shop).
+     *
+     * @param email        customer email
+     * @param password     customer password
+     * @param productNames exact product names; with the UI flow the first one must be listed on the home page and
+     *                     the others on its product page
+     * @return CheckoutPage for the opened checkout
+     */
+    public static CheckoutPage openCheckoutWithCart(String email, String password, List<String> productNames) {
+        if (isHttpMode()) {
+            StorefrontClient storefront = new StorefrontClient(ConfigReader.get("base.url.shop"));
+            try {
+                return openCheckoutOverHttp(storefront, email, password, productNames);
+            } catch (RuntimeException e) {
+                logger.warn("HTTP checkout precondition failed, falling back to the UI flow: {}", e.getMessage());
+                discardSeededCart(storefront, e);
+                // Start the UI flow from a clean guest session on the home page
+                WebDriver driver = DriverManager.getDriver();
+                driver.manage().deleteAllCookies();
+                driver.get(ConfigReader.get("base.url.shop"));
+            }
+        }
+        return openCheckoutThroughUi(email, password, productNames);
+    }
+
+    /**
+     * The cart belongs to the customer, not to the HTTP session: products added before the failure would still be
+     * in it when the UI flow adds them again. Fails the precondition if they cannot be removed.
+     */
+    private static void discardSeededCart(StorefrontClient storefront, RuntimeException failure) {
+        if (!storefront.isSignedIn()) {
+            return;
+        }
+        try {
+            storefront.clearCart();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            throw new IllegalStateException("HTTP checkout precondition failed and the customer's cart could not be "
+                    + "cleared, the UI flow would run on a doubled cart", failure);
+        }
+    }
+
+    private static CheckoutPage openCheckoutOverHttp(StorefrontClient storefront, String email, String password,
+                                                     List<String> productNames) {
+        String baseUrl = ConfigReader.get("base.url.shop");
+        storefront.login(email, password).addToCart(productNames);
+
+        WebDriver driver = DriverManager.getDriver();
+        // Replace the browser's guest session with the one built over HTTP
+        driver.manage().deleteAllCookies();
+        for (HttpCookie cookie : storefront.getCookies()) {
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .isSecure(cookie.getSecure())
+                    .build());
+        }
+
+        String checkoutUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "onepagecheckout";
+        ExecutionTimeline.time(ExecutionTimeline.Category.NAVIGATION, CheckoutPreconditions.class.getName(),
+                "openCheckout", checkoutUrl, () -> driver.get(checkoutUrl));
+        // An empty cart or a lost session redirects away from the checkout
+        if (!WaitUtils.waitForUrlToContain("onepagecheckout", 5)) {
+            throw new IllegalStateException("Browser was redirected to " + driver.getCurrentUrl() + " instead of the checkout");
+        }
+        return new CheckoutPage();
+    }
+
+    private static CheckoutPage openCheckoutThroughUi(String email, String password, List<String> productNames) {
+        ProductDetailPage productDetailPage = new ProductDetailPage()
+                .logIn(email, password)
+                .openProductDetailsPageFromHome(productNames.get(0))
+                .clickOnAddToCartButtonInPDP()
+                .closeBarNotification();
+        for (String productName : productNames.subList(1, productNames.size())) {
+            productDetailPage
+                    .clickOnAddToCartButton(productName)
+                    .closeBarNotification();
+        }
+
+        return new ShoppingCartPage()
+                .navigateToShoppingCartPage()
+                .agreeToTerms()
+                .clickOnCheckoutButton();
+    }
+}
@@ -0,0 +1,201 @@
+package api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ExecutionTimeline;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP client for the nopCommerce storefront, used to set up test preconditions without driving the UI.
+ * <p>
+ * Keeps its own cookie jar (customer, antiforgery and authentication cookies) so a session built here can be
+ * copied into a browser with {@link #getCookies()}. Form posts carry the antiforgery token of the current
+ * identity, which is re-read after login because nopCommerce ties the token to the signed-in customer.
+ */
+public class StorefrontClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorefrontClient.class);
+
+    private static final Pattern ANTIFORGERY_TOKEN =
+            Pattern.compile("name=\"__RequestVerificationToken\"[^>]*value=\"([^\"]+)\"");
+    private static final Pattern PRODUCT_ITEM =
+            Pattern.compile("data-productid=\"(\\d+)\".*?class=\"product-title\">\\s*<a href=\"[^\"]*\">([^<]+)</a>", Pattern.DOTALL);
+    private static final Pattern CART_QUANTITY = Pattern.compile("name=\"(itemquantity\\d+)\"");
+
+    private final URI baseUri;
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient client;
+    private boolean signedIn;
+
+    /**
+     * @param baseUrl storefront root, e.g. base.url.shop
+     */
+    public StorefrontClient(String baseUrl) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Signs the customer in through the login form.
+     *
+     * @throws IllegalStateException if the storefront does not answer the login with a redirect
+     */
+    public StorefrontClient login(String email, String password) {
+        String token = fetchAntiforgeryToken("login");
+
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("Email", email);
+        form.put("Password", password);
+        form.put("RememberMe", "false");
+        form.put("__RequestVerificationToken", token);
+        HttpResponse<String> response = post("login", form, false);
+
+        // A successful login redirects, a failed one re-renders the form with 200
+        if (response.statusCode() != 302 || getCookies().stream().noneMatch(c -> c.getName().contains("Authentication"))) {
+            throw new IllegalStateException("Login failed for " + email + " (HTTP " + response.statusCode() + ")");
+        }
+        signedIn = true;
+        logger.info("Logged in {} over HTTP", email);
+        return this;
+    }
+
+    /**
+     * Whether {@link #login(String, String)} succeeded, i.e. the cart of this session is the customer's own.
+     */
+    public boolean isSignedIn() {
+        return signedIn;
+    }
+
+    /**
+     * Removes every line from the shopping cart by setting all quantities to 0 (nopCommerce deletes such lines).
+     *
+     * @throws IllegalStateException if the cart still has lines afterwards
+     */
+    public StorefrontClient clearCart() {
+        String html = get("cart").body();
+        Matcher matcher = ANTIFORGERY_TOKEN.matcher(html);
+        if (!matcher.find()) {
+            // An empty cart renders no form
+            return this;
+        }
+        Map<String, String> form = new LinkedHashMap<>();
+        Matcher quantity = CART_QUANTITY.matcher(html);
+        while (quantity.find()) {
+            form.put(quantity.group(1), "0");
+        }
+        if (form.isEmpty()) {
+            return this;
+        }
+        form.put("updatecart", "updatecart");
+        form.put("__RequestVerificationToken", matcher.group(1));
+        post("cart", form, false);
+        if (CART_QUANTITY.matcher(get("cart").body()).find()) {
+            throw new IllegalStateException("Shopping cart still has lines after clearing it");
+        }
+        logger.info("Cleared {} cart line(s) over HTTP", form.size() - 2);
+        return this;
+    }
+
+    /**
+     * Adds one unit of each product to the shopping cart, looking products up by their exact name.
+     *
+     * @throws IllegalStateException if a product cannot be found or the storefront rejects the add
+     */
+    public StorefrontClient addToCart(List<String> productNames) {
+        // Token issued for the current (possibly just signed-in) customer; the login page renders its form in every
+        // state, while an empty cart renders none
+        String token = fetchAntiforgeryToken("login");
+        for (String productName : productNames) {
+            String productId = findProductId(productName);
+            HttpResponse<String> response = post("addproducttocart/catalog/" + productId + "/1/1",
+                    Map.of("__RequestVerificationToken", token), true);
+            if (response.statusCode() != 200 || !response.body().contains("\"success\":true")) {
+                throw new IllegalStateException("Could not add '" + productName + "' to the cart (HTTP "
+                        + response.statusCode() + "): " + response.body());
+            }
+            logger.info("Added '{}' (product {}) to the cart over HTTP", productName, productId);
+        }
+        return this;
+    }
+
+    /**
+     * Cookies of this session for the storefront host.
+     */
+    public List<HttpCookie> getCookies() {
+        return cookies.getCookieStore().get(baseUri);
+    }
+
+    private String findProductId(String productName) {
+        String html = get("search?q=" + encode(productName)).body();
+        Matcher matcher = PRODUCT_ITEM.matcher(html);
+        while (matcher.find()) {
+            if (matcher.group(2).trim().equals(productName)) {
+                return matcher.group(1);
+            }
+        }
+        throw new IllegalStateException("Product '" + productName + "' not found in storefront search");
+    }
+
+    private String fetchAntiforgeryToken(String path) {
+        Matcher matcher = ANTIFORGERY_TOKEN.matcher(get(path).body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No antiforgery token on /" + path);
+        }
+        return matcher.group(1);
+    }
+
+    private HttpResponse<String> get(String path) {
+        return send("GET", path, HttpRequest.newBuilder(baseUri.resolve(path)).GET());
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> form, boolean ajax) {
+        String body = form.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (ajax) {
+            request.header("X-Requested-With", "XMLHttpRequest");
+        }
+        return send("POST", path, request);
+    }
+
+    private HttpResponse<String> send(String method, String path, HttpRequest.Builder request) {
+        return ExecutionTimeline.time(ExecutionTimeline.Category.HTTP, StorefrontClient.class.getName(), method, "/" + path, () -> {
+            try {
+                return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                throw new IllegalStateException(method + " /" + path + " failed: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(method + " /" + path + " interrupted", e);
+            }
+        });
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
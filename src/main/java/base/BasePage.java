@@ -1,19 +1,28 @@
 package base;
 
+import config.ConfigReader;
 import driver.DriverManager;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.DomSnapshot;
+import utils.ExecutionTimeline;
+import utils.PageMetrics;
+import utils.PageReadiness;
 import utils.WaitUtils;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 import static utils.WaitUtils.waitForElementToBeVisible;
 
@@ -36,13 +45,41 @@ public class BasePage {
      **************************************************************************************************************/
 
     /**
-     * Clicks on an element after waiting for it to be clickable.
+     * Clicks on an element after waiting for it to be visible and clickable (one combined wait).
      *
      * @param locator By locator of the element
      */
     public void clickOnElement(By locator) {
-        WaitUtils.waitForElementToBeVisible(locator);
-        WaitUtils.waitForElementToBeClickable(locator).click();
+        track("clickOnElement", locator, () -> WaitUtils.waitForElementToBeClickable(locator).click());
+        // Optional post-condition for every click, see click.wait.ajax
+        if (ConfigReader.getBoolean("click.wait.ajax", false)) {
+            WaitUtils.waitForAjaxIdle();
+        }
+    }
+
+    /**
+     * Clicks on a link or button that opens another page. With page.metrics.enabled the new page's timings are
+     * recorded once it has loaded, credited to the calling page object method.
+     *
+     * @param locator By locator of the element
+     */
+    public void clickOnNavigationElement(By locator) {
+        PageMetrics.markDeparture(driver);
+        clickOnElement(locator);
+        PageMetrics.captureNavigation(driver);
+    }
+
+    /**
+     * Clicks on an element that triggers an AJAX request (add to cart, checkout steps, ...) and waits until the
+     * page is idle again.
+     *
+     * @param locator By locator of the element
+     */
+    public void clickOnElementAndWaitForAjax(By locator) {
+        // Count the requests the click starts from their first byte on
+        PageReadiness.installHooks(driver);
+        track("clickOnElement", locator, () -> WaitUtils.waitForElementToBeClickable(locator).click());
+        WaitUtils.waitForAjaxIdle();
     }
 
     /**
@@ -52,7 +89,7 @@ public class BasePage {
      * @param text    Text to type into the input field
      */
     public void enterText(By locator, String text) {
-        waitForElementToBeVisible(locator).sendKeys(text);
+        track("enterText", locator, () -> waitForElementToBeVisible(locator).sendKeys(text));
     }
 
     /**
@@ -61,8 +98,7 @@ public class BasePage {
      * @param locator By locator of the input field
      */
     public void clearText(By locator) {
-        WebElement element = waitForElementToBeVisible(locator);
-        element.clear();
+        track("clearText", locator, () -> waitForElementToBeVisible(locator).clear());
     }
 
     /**
@@ -72,20 +108,30 @@ public class BasePage {
      * @return Text content of the element
      */
     public String getText(By locator) {
-        return waitForElementToBeVisible(locator).getText();
+        return track("getText", locator, () -> waitForElementToBeVisible(locator).getText());
     }
 
     /**
      * Retrieves the text of all elements matching the locator after waiting for them to be visible.
+     * All texts are read in one bulk snapshot instead of one call per element.
      *
      * @param locator By locator of the elements
      * @return List of text content from all matching elements
      */
     public List<String> getElementsText(By locator) {
-        List<WebElement> elements = WaitUtils.waitForAllElementsToBeVisible(locator);
-        return elements.stream()
-                .map(WebElement::getText)
-                .collect(Collectors.toList());
+        return track("getElementsText", locator, () -> DomSnapshot.texts(WaitUtils.waitForAllElementsSnapshot(locator)));
+    }
+
+    /**
+     * Reads text, value, visibility, state and the given attributes of all elements matching the locator in one
+     * bulk call, after waiting for them to be visible.
+     *
+     * @param locator    By locator of the elements
+     * @param attributes Attribute names to read from every element
+     * @return One snapshot entry per matching element, in document order
+     */
+    public List<DomSnapshot.Element> getElementsSnapshot(By locator, String... attributes) {
+        return track("getElementsSnapshot", locator, () -> WaitUtils.waitForAllElementsSnapshot(locator, attributes));
     }
 
     /**
@@ -99,23 +145,116 @@ public class BasePage {
     }
 
     /**
-     * Checks if an element is displayed on the page
+     * Checks if an element is displayed on the page, waiting up to the full explicit timeout for it.
+     * Use it where the element is expected; where absence is a normal outcome use the probes below.
      *
      * @param locator By locator of the element to check
      * @return true if element is displayed, false otherwise
      */
     public boolean isElementDisplayed(By locator) {
-        try {
-            return waitForElementToBeVisible(locator).isDisplayed();
-        } catch (Exception e) {
-            logger.warn("Element not found or not displayed: {}", locator, e);
-            return false;
-        }
+        return track("isElementDisplayed", locator, () -> {
+            try {
+                return waitForElementToBeVisible(locator).isDisplayed();
+            } catch (Exception e) {
+                logger.warn("Element not found or not displayed: {} ({})", locator, firstLine(e));
+                return false;
+            }
+        });
+    }
+
+    /* *************************************************************************************************************
+     * Probe Utilities (absence is an expected outcome, so they never wait the full explicit timeout)
+     **************************************************************************************************************/
+
+    /**
+     * Checks if an element is in the DOM right now, without waiting.
+     *
+     * @param locator By locator of the element to check
+     * @return true if at least one element matches
+     */
+    public boolean isPresentNow(By locator) {
+        return track("isPresentNow", locator, () -> !driver.findElements(locator).isEmpty());
+    }
+
+    /**
+     * Checks if an element becomes visible within a small budget.
+     *
+     * @param locator By locator of the element to check
+     * @param timeout Maximum time to wait, e.g. {@link #probeTimeout()}
+     * @return true if the element was visible in time, false otherwise
+     */
+    public boolean isDisplayedWithin(By locator, Duration timeout) {
+        return track("isDisplayedWithin", locator, () -> {
+            try {
+                return WaitUtils.waitForElementVisible(locator, timeout).isDisplayed();
+            } catch (TimeoutException e) {
+                logger.debug("Element not displayed within {} ms: {}", timeout.toMillis(), locator);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Checks if an alert opens within a small budget, e.g. after an action that may or may not be rejected.
+     *
+     * @param timeout Maximum time to wait, e.g. {@link #probeTimeout()}
+     * @return true if an alert is open, false otherwise
+     */
+    public boolean isAlertPresentWithin(Duration timeout) {
+        return track("isAlertPresentWithin", "alert", () -> {
+            try {
+                WaitUtils.waitForAlertPresent(timeout);
+                return true;
+            } catch (TimeoutException e) {
+                logger.debug("No alert within {} ms", timeout.toMillis());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Checks within a small budget whether an element of the target page shows up, for navigations that may
+     * legitimately not happen. Use {@link #validateRedirectionByElement(By)} where the redirection is expected.
+     *
+     * @param elementOnNewPage A unique By locator that only exists on the target page
+     * @param timeout          Maximum time to wait, e.g. {@link #probeTimeout()}
+     */
+    public boolean isRedirectedWithin(By elementOnNewPage, Duration timeout) {
+        return isDisplayedWithin(elementOnNewPage, timeout);
+    }
+
+    /**
+     * Waits for whichever of two alternative page states shows up first, e.g. a saved-address dropdown or an
+     * empty address form. Returns as soon as one of them is visible instead of timing out on the absent one.
+     *
+     * @param locatorA By locator of the first candidate
+     * @param locatorB By locator of the second candidate
+     * @return The locator that became visible; locatorA if both are
+     * @throws TimeoutException if neither becomes visible within the explicit timeout
+     */
+    public By awaitEither(By locatorA, By locatorB) {
+        return track("awaitEither", locatorA + " | " + locatorB, () -> WaitUtils.waitForAnyElementToBeVisible(locatorA, locatorB));
+    }
+
+    /**
+     * Budget for {@link #isDisplayedWithin(By, Duration)} probes, read from probe.timeout.ms.
+     */
+    protected static Duration probeTimeout() {
+        return Duration.ofMillis(ConfigReader.getInt("probe.timeout.ms", 1500));
     }
 
     public String getAttribute(By locator, String attributeName) {
-        WebElement element = waitForElementToBeVisible(locator);
-        return element.getAttribute(attributeName);
+        return track("getAttribute", locator, () -> waitForElementToBeVisible(locator).getAttribute(attributeName));
+    }
+
+    /**
+     * Starts a form fill: add the fields in form order and call {@link FormFiller#fill()}. Fields are typed one
+     * by one unless form.fill.mode=script or the form opts in to scripted filling.
+     *
+     * @return FormFiller bound to this page
+     */
+    protected FormFiller form() {
+        return new FormFiller(this);
     }
 
     /* *************************************************************************************************************
@@ -129,9 +268,7 @@ public class BasePage {
      * @param visibleText The visible text of the option
      */
     public void selectDropdownByVisibleText(By locator, String visibleText) {
-        WebElement dropdown = byToWebElement(locator);
-        Select select = new Select(dropdown);
-        select.selectByVisibleText(visibleText);
+        track("selectDropdownByVisibleText", locator, () -> new Select(byToWebElement(locator)).selectByVisibleText(visibleText));
     }
 
     /**
@@ -141,9 +278,7 @@ public class BasePage {
      * @param value   The value attribute of the option
      */
     public void selectDropdownByValue(By locator, String value) {
-        WebElement dropdown = byToWebElement(locator);
-        Select select = new Select(dropdown);
-        select.selectByValue(value);
+        track("selectDropdownByValue", locator, () -> new Select(byToWebElement(locator)).selectByValue(value));
     }
 
     /**
@@ -153,9 +288,7 @@ public class BasePage {
      * @param index   The index of the option (0-based)
      */
     public void selectDropdownByIndex(By locator, int index) {
-        WebElement dropdown = byToWebElement(locator);
-        Select select = new Select(dropdown);
-        select.selectByIndex(index);
+        track("selectDropdownByIndex", locator, () -> new Select(byToWebElement(locator)).selectByIndex(index));
     }
 
     /**
@@ -165,9 +298,11 @@ public class BasePage {
      * @return selected option text
      */
     public String getSelectedDropdownOption(By locator) {
-        WebElement dropdown = byToWebElement(locator);
-        Select select = new Select(dropdown);
-        return select.getFirstSelectedOption().getText();
+        return track("getSelectedDropdownOption", locator, () -> DomSnapshot.options(driver, byToWebElement(locator)).stream()
+                .filter(DomSnapshot.Element::selected)
+                .map(DomSnapshot.Element::text)
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("No options are selected in " + locator)));
     }
 
     /**
@@ -177,11 +312,7 @@ public class BasePage {
      * @return List of option texts
      */
     public List<String> getDropdownOptions(By locator) {
-        WebElement dropdown = byToWebElement(locator);
-        Select select = new Select(dropdown);
-        return select.getOptions().stream()
-                .map(WebElement::getText)
-                .collect(Collectors.toList());
+        return track("getDropdownOptions", locator, () -> DomSnapshot.texts(DomSnapshot.options(driver, byToWebElement(locator))));
     }
 
     /**
@@ -201,27 +332,45 @@ public class BasePage {
      **************************************************************************************************************/
 
     /**
-     * Validates redirection by waiting for a unique element on the new page.
-     * You can use isElementDisplayed(By locator) instead of this method as well.
+     * Validates redirection by waiting for a unique element on the new page, up to the full explicit timeout.
+     * Where staying on the current page is a normal outcome use {@link #isRedirectedWithin(By, Duration)}.
      *
      * @param elementOnNewPage A unique By locator that only exists on the target page
      */
     public boolean validateRedirectionByElement(By elementOnNewPage) {
-        try {
-            return WaitUtils.waitForElementToBeVisible(elementOnNewPage).isDisplayed();
-        } catch (Exception e) {
-            logger.warn("Element not found during redirection validation: {}", elementOnNewPage, e);
-            return false;
+        boolean redirected = track("validateRedirectionByElement", elementOnNewPage, () -> {
+            try {
+                return WaitUtils.waitForElementToBeVisible(elementOnNewPage).isDisplayed();
+            } catch (Exception e) {
+                logger.warn("Element not found during redirection validation: {} ({})", elementOnNewPage, firstLine(e));
+                return false;
+            }
+        });
+        if (redirected) {
+            PageMetrics.capture(driver);
         }
+        return redirected;
     }
 
+    /**
+     * Waits until the browser is on the expected URL.
+     *
+     * @param expectedUrl absolute URL, or a path such as "cart" relative to base.url.shop
+     */
     public Boolean validateRedirectionByUrl(String expectedUrl) {
-        try {
-            return WaitUtils.waitUntilUrlToBe(expectedUrl);
-        } catch (Exception e) {
-            logger.warn("Error during URL redirection validation: {}", expectedUrl, e);
-            return false;
+        String url = URI.create(ConfigReader.get("base.url.shop")).resolve(expectedUrl).toString();
+        Boolean redirected = track("validateRedirectionByUrl", url, () -> {
+            try {
+                return WaitUtils.waitUntilUrlToBe(url);
+            } catch (Exception e) {
+                logger.warn("Error during URL redirection validation: {} ({})", url, firstLine(e));
+                return false;
+            }
+        });
+        if (Boolean.TRUE.equals(redirected)) {
+            PageMetrics.capture(driver);
         }
+        return redirected;
     }
 
     /* *************************************************************************************************************
@@ -311,15 +460,21 @@ public class BasePage {
         }
     }
 
+    /**
+     * Checks for an expected alert, waiting up to the full explicit timeout. Where no alert is a normal outcome
+     * use {@link #isAlertPresentWithin(Duration)}.
+     */
     public boolean isAlertPresent() {
-        try {
-            WaitUtils.waitForAlertPresent();
-            logger.info("Alert is present.");
-            return true; // Alert is present
-        } catch (Exception e) {
-            logger.warn("No alert present: {}", e.getMessage());
-            return false; // No alert found
-        }
+        return track("isAlertPresent", "alert", () -> {
+            try {
+                WaitUtils.waitForAlertPresent();
+                logger.info("Alert is present.");
+                return true; // Alert is present
+            } catch (Exception e) {
+                logger.warn("No alert present: {}", firstLine(e));
+                return false; // No alert found
+            }
+        });
     }
 
     public boolean isMessagePresentInAlert(String expectedMessage) {
@@ -338,5 +493,28 @@ public class BasePage {
         }
     }
 
+    // Selenium messages append build and driver info; the first line is enough for an expected miss
+    private static String firstLine(Exception e) {
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage().lines().findFirst().orElse("");
+    }
+
+    /* *************************************************************************************************************
+     * Timing Instrumentation
+     **************************************************************************************************************/
 
+    /**
+     * Runs a page interaction and records it in the execution timeline under this page class.
+     *
+     * @param action Name of the BasePage method
+     * @param target Locator or other target of the interaction
+     * @param body   The interaction
+     * @return Result of the interaction
+     */
+    protected <T> T track(String action, Object target, Supplier<T> body) {
+        return ExecutionTimeline.time(ExecutionTimeline.Category.ACTION, getClass().getName(), action, String.valueOf(target), body);
+    }
+
+    protected void track(String action, Object target, Runnable body) {
+        ExecutionTimeline.time(ExecutionTimeline.Category.ACTION, getClass().getName(), action, String.valueOf(target), body);
+    }
 }
@@ -0,0 +1,259 @@
+package base;
+
+import config.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.DomSnapshot;
+import utils.WaitEngine;
+import utils.WaitUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills a form in one go. Obtain one with {@link BasePage#form()}, add fields in form order and call {@link #fill()}.
+ * <p>
+ * In {@link Mode#SCRIPT} mode all values are set by one injected script that dispatches the same input, change
+ * and focusout events as typing, so page scripts and client-side validation see the change. A
+ * {@link #dependentSelect(By, String) dependent select} (e.g. state, whose options are reloaded when the country
+ * changes) splits the fill: the script runs up to its parent select, waits until the reloaded option is there and
+ * continues. In {@link Mode#KEYS} mode every field goes through the regular BasePage interactions (keystrokes and
+ * Select), which is the default, exercises real typing and is the fallback when scripting fails before any field
+ * was set.
+ * <p>
+ * The default mode is form.fill.mode (keys or script); a form opts in with {@code mode(Mode.SCRIPT)}.
+ */
+public class FormFiller {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormFiller.class);
+
+    // Sets each field, returns the failures as "locator: reason"
+    private static final String FILL_SCRIPT = DomSnapshot.LOCATE_FUNCTION + """
+            var fields = arguments[0], failures = [];
+            function fire(el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); }
+            fields.forEach(function (field) {
+              var el = locateAll(field.using, field.target)[0];
+              if (!el) { failures.push(field.target + ': not found'); return; }
+              if (field.kind === 'select') {
+                var option = Array.from(el.options).find(function (o) { return o.text.trim() === field.value; });
+                if (!option) { failures.push(field.target + ": no option '" + field.value + "'"); return; }
+                if (field.stampDependent) {
+                  var dependent = locateAll(field.stampDependent.using, field.stampDependent.target)[0];
+                  if (dependent && el.value !== option.value) {
+                    Array.from(dependent.options).forEach(function (o) { o.__formFillerStale = true; });
+                  }
+                }
+                if (el.value !== option.value) { el.value = option.value; fire(el, 'change'); }
+              } else if (field.kind === 'check') {
+                if (!el.checked) el.click();
+              } else {
+                var proto = el.tagName === 'TEXTAREA' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;
+                el.focus();
+                Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, field.value);
+                fire(el, 'input');
+                fire(el, 'change');
+                fire(el, 'focusout');
+              }
+            });
+            if (document.activeElement && document.activeElement.blur) document.activeElement.blur();
+            return failures;
+            """;
+
+    // True once the dependent select offers the option and it is not one of the options before the reload
+    private static final String OPTION_READY_SCRIPT = DomSnapshot.LOCATE_FUNCTION + """
+            var el = locateAll(arguments[0], arguments[1])[0], wanted = arguments[2];
+            return !!el && Array.from(el.options).some(function (o) {
+              return o.text.trim() === wanted && !o.__formFillerStale;
+            });
+            """;
+
+    public enum Mode {
+        SCRIPT, KEYS
+    }
+
+    private enum Kind {
+        TEXT, SELECT, CHECK
+    }
+
+    private record Field(By locator, Kind kind, String value, boolean dependent) {
+    }
+
+    private final BasePage page;
+    private final List<Field> fields = new ArrayList<>();
+    private Mode mode = Mode.valueOf(ConfigReader.get("form.fill.mode", "keys").toUpperCase());
+    // Set once a scripted batch has changed the form; typing the fields again would append to their values
+    private boolean scriptedBatchRun;
+
+    FormFiller(BasePage page) {
+        this.page = page;
+    }
+
+    /**
+     * Types the value into a text input or textarea. Null values are skipped.
+     */
+    public FormFiller text(By locator, String value) {
+        if (value != null) fields.add(new Field(locator, Kind.TEXT, value, false));
+        return this;
+    }
+
+    /**
+     * Selects the option with the given visible text. Null values are skipped.
+     */
+    public FormFiller select(By locator, String visibleText) {
+        if (visibleText != null) fields.add(new Field(locator, Kind.SELECT, visibleText, false));
+        return this;
+    }
+
+    /**
+     * Selects an option of a select whose options are reloaded when the previous select field changes
+     * (e.g. state after country). Null values are skipped.
+     */
+    public FormFiller dependentSelect(By locator, String visibleText) {
+        if (visibleText != null) fields.add(new Field(locator, Kind.SELECT, visibleText, true));
+        return this;
+    }
+
+    /**
+     * Checks a checkbox or radio button, if it is not checked already.
+     */
+    public FormFiller check(By locator) {
+        fields.add(new Field(locator, Kind.CHECK, null, false));
+        return this;
+    }
+
+    /**
+     * Overrides form.fill.mode for this form, e.g. {@code mode(Mode.SCRIPT)} for a form that is only a step
+     * towards what the test checks.
+     */
+    public FormFiller mode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Fills all fields added so far.
+     *
+     * @throws NoSuchElementException if a field or select option cannot be found
+     * @throws WebDriverException       if scripted filling fails after part of the form was set
+     */
+    public void fill() {
+        if (fields.isEmpty()) return;
+        page.track("fillForm", fields.size() + " fields, " + mode, () -> {
+            if (mode == Mode.SCRIPT && canScript()) {
+                try {
+                    fillWithScript();
+                    return;
+                } catch (NoSuchElementException e) {
+                    throw e;
+                } catch (WebDriverException e) {
+                    if (scriptedBatchRun) {
+                        throw e;
+                    }
+                    logger.warn("Scripted form fill failed, typing the fields instead: {}", e.getMessage());
+                }
+            }
+            fillWithKeys();
+        });
+    }
+
+    private boolean canScript() {
+        return page.driver instanceof JavascriptExecutor
+                && fields.stream().allMatch(field -> DomSnapshot.scriptLocator(field.locator()) != null);
+    }
+
+    private void fillWithScript() {
+        JavascriptExecutor js = (JavascriptExecutor) page.driver;
+        // Form rendered: the first field is visible
+        WaitUtils.waitForElementToBeVisible(fields.get(0).locator());
+
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (field.dependent()) {
+                runBatch(js, batch);
+                batch.clear();
+                waitForOption(field);
+            }
+            Map<String, Object> entry = toScriptField(field);
+            Field next = i + 1 < fields.size() ? fields.get(i + 1) : null;
+            if (field.kind() == Kind.SELECT && next != null && next.dependent()) {
+                // Mark the dependent select's current options so the wait can tell reloaded options apart
+                entry.put("stampDependent", toScriptField(next));
+            }
+            batch.add(entry);
+        }
+        runBatch(js, batch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runBatch(JavascriptExecutor js, List<Map<String, Object>> batch) {
+        if (batch.isEmpty()) return;
+        List<Object> failures = (List<Object>) js.executeScript(FILL_SCRIPT, batch);
+        scriptedBatchRun = true;
+        if (failures != null && !failures.isEmpty()) {
+            throw new NoSuchElementException("Form fill failed: " + failures);
+        }
+    }
+
+    private void waitForOption(Field field) {
+        List<Object> target = DomSnapshot.scriptLocator(field.locator());
+        WaitEngine.current().until("waitForDependentOption", new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return (Boolean) ((JavascriptExecutor) driver).executeScript(OPTION_READY_SCRIPT, target.get(0), target.get(1), field.value());
+            }
+
+            @Override
+            public String toString() {
+                return "option '" + field.value() + "' to be loaded in " + field.locator();
+            }
+        });
+    }
+
+    private void fillWithKeys() {
+        for (Field field : fields) {
+            switch (field.kind()) {
+                case TEXT -> page.enterText(field.locator(), field.value());
+                case SELECT -> {
+                    if (field.dependent()) waitForOptionByKeys(field);
+                    page.selectDropdownByVisibleText(field.locator(), field.value());
+                }
+                case CHECK -> {
+                    if (!page.byToWebElement(field.locator()).isSelected()) page.clickOnElement(field.locator());
+                }
+            }
+        }
+    }
+
+    private void waitForOptionByKeys(Field field) {
+        WaitEngine.current().until("waitForDependentOption", new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return page.isOptionInDropdown(field.locator(), field.value());
+            }
+
+            @Override
+            public String toString() {
+                return "option '" + field.value() + "' to be loaded in " + field.locator();
+            }
+        });
+    }
+
+    private static Map<String, Object> toScriptField(Field field) {
+        List<Object> target = DomSnapshot.scriptLocator(field.locator());
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("using", target.get(0));
+        entry.put("target", target.get(1));
+        entry.put("kind", field.kind().name().toLowerCase());
+        entry.put("value", field.value());
+        return entry;
+    }
+}
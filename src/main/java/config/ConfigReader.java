@@ -19,14 +19,36 @@ public class ConfigReader
         }
     }
 
+    /**
+     * Returns the value of a key; a JVM system property with the same name (-Dkey=value) wins over config.properties.
+     */
     public static String get(String key)
     {
-        return props.getProperty(key);
+        String value = System.getProperty(key, props.getProperty(key));
+        return value == null ? null : value.trim();
+    }
+
+    public static String get(String key, String defaultValue)
+    {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
     }
 
     public static int getInt(String key)
     {
-        return Integer.parseInt(props.getProperty(key));
+        return Integer.parseInt(get(key));
+    }
+
+    public static int getInt(String key, int defaultValue)
+    {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue)
+    {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
     }
 
     public static boolean isHeadless()
@@ -38,4 +60,4 @@ public class ConfigReader
     {
         return Environment.valueOf(get("env").toUpperCase());
     }
-}
\ No newline at end of file
+}
@@ -1,98 +1,152 @@
 package driver;
 
-import config.ConfigReader;
-import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Level;
 
+/**
+ * Creates browser sessions configured by the current {@link LaunchProfile} (browser.profile): local drivers,
+ * or remote sessions on a Selenium Grid through {@link GridSessionFactory} when executionType=remote. Local Chrome
+ * and Edge sessions block the profile's URL patterns through {@link NetworkBlocker}.
+ */
 public class BrowserFactory {
 
     public static WebDriver getBrowserDriver(String browserName) {
+        return getBrowserDriver(browserName, LaunchProfile.current());
+    }
+
+    public static WebDriver getBrowserDriver(String browserName, LaunchProfile profile) {
+        if (GridSessionFactory.isRemote()) {
+            return GridSessionFactory.createSession(getBrowserOptions(browserName, profile));
+        }
+        WebDriver driver = switch (browserName.toUpperCase()) {
+            case "CHROME" -> new ChromeDriver(getChromeOptions(profile));
+            case "FIREFOX" -> new FirefoxDriver(getFirefoxOptions(profile));
+            case "EDGE" -> new EdgeDriver(getEdgeOptions(profile));
+            default -> throw new IllegalArgumentException("Unsupported browser: " + browserName);
+        };
+        NetworkBlocker.attach(driver, profile);
+        return driver;
+    }
+
+    /**
+     * Browser options for the given browser and profile, also used as the capabilities of remote sessions.
+     */
+    public static Capabilities getBrowserOptions(String browserName, LaunchProfile profile) {
         return switch (browserName.toUpperCase()) {
-            case "CHROME" -> new ChromeDriver(getChromeOptions());//getChromeOptions()
-            case "FIREFOX" -> new FirefoxDriver(getFirefoxOptions());//getFirefoxOptions()
-            case "EDGE" -> new EdgeDriver(getEdgeOptions());//getEdgeOptions()
+            case "CHROME" -> getChromeOptions(profile);
+            case "FIREFOX" -> getFirefoxOptions(profile);
+            case "EDGE" -> getEdgeOptions(profile);
             default -> throw new IllegalArgumentException("Unsupported browser: " + browserName);
         };
     }
 
-    private static ChromeOptions getChromeOptions() {
+    private static ChromeOptions getChromeOptions(LaunchProfile profile) {
         ChromeOptions options = new ChromeOptions();
+        applyChromiumProfile(options, profile);
+        options.addArguments("--lang=en-US"); // ✅ Set language to English
+        return options;
+    }
+
+    private static FirefoxOptions getFirefoxOptions(LaunchProfile profile) {
+        FirefoxOptions options = new FirefoxOptions();
+        options.addArguments("--disable-notifications", "--disable-popup-blocking");
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        options.setUnhandledPromptBehaviour(UnexpectedAlertBehaviour.IGNORE);
+        options.setAcceptInsecureCerts(true);
+
+        if (profile.isHeadless()) {
+            Dimension size = profile.getWindowSize();
+            options.addArguments("-headless", "--width=" + size.getWidth(), "--height=" + size.getHeight());
+        }
+
+        if (profile.isLean()) {
+            // Block images and web fonts, no background update/telemetry traffic
+            options.addPreference("permissions.default.image", 2);
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+            options.addPreference("browser.safebrowsing.phishing.enabled", false);
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+            options.addPreference("layers.acceleration.disabled", true);
+        }
+
+        return options;
+    }
+
+    private static EdgeOptions getEdgeOptions(LaunchProfile profile) {
+        EdgeOptions options = new EdgeOptions();
+        applyChromiumProfile(options, profile);
+        return options;
+    }
 
-        // Set browser startup arguments
+    /**
+     * Startup arguments, preferences and page load strategy shared by Chrome and Edge.
+     */
+    private static void applyChromiumProfile(ChromiumOptions<?> options, LaunchProfile profile) {
         options.addArguments(
-                "start-maximized",
                 "--disable-notifications",
                 "--disable-popup-blocking",
                 "--disable-infobars",
-                "--disable-dev-shm-usage",
-                "--disable-extensions",
-                "--lang=en-US" // ✅ Set language to English
+                "--disable-dev-shm-usage"
         );
+        if (!profile.keepsExtensions()) {
+            options.addArguments("--disable-extensions");
+        }
 
-        // Set page load strategy
-        options.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+        if (profile.isHeadless()) {
+            Dimension size = profile.getWindowSize();
+            options.addArguments("--headless=new", "--window-size=" + size.getWidth() + "," + size.getHeight());
+        } else {
+            options.addArguments("start-maximized");
+        }
 
         // Disable password manager, notifications, autofill
-        options.setExperimentalOption("prefs", Map.of(
+        Map<String, Object> prefs = new HashMap<>(Map.of(
                 "profile.default_content_setting_values.notifications", 2,
                 "credential_enable_service", false,
                 "profile.password_manager_enabled", false,
                 "autofill.profile.enable", false
         ));
 
-        // If not local, run in headless mode
-        // if (!ConfigReader.get("executionType").equalsIgnoreCase("local")) {
-        //   options.addArguments("--headless");
-        //  }
-
-        return options;
-    }
-
-
-    private static FirefoxOptions getFirefoxOptions() {
-        FirefoxOptions options = new FirefoxOptions();
-        options.addArguments("--start-maximized", "--disable-notifications", "--disable-popup-blocking", "--disable-infobars",
-                "--disable-dev-shm-usage", "--disable-extensions");
-
-        options.setPageLoadStrategy(PageLoadStrategy.NORMAL);
-        options.setAcceptInsecureCerts(true);
-
-        if (!ConfigReader.get("executionType").equalsIgnoreCase("local")) {
-            options.addArguments("--headless");
+        if (profile.isLean()) {
+            options.addArguments(
+                    "--disable-gpu",
+                    "--disable-background-networking",
+                    "--disable-component-update",
+                    "--disable-default-apps",
+                    "--disable-sync",
+                    "--disable-remote-fonts",
+                    "--blink-settings=imagesEnabled=false",
+                    "--no-first-run"
+            );
+            prefs.put("profile.managed_default_content_settings.images", 2);
+        } else if (profile.isHeadless()) {
+            options.addArguments("--disable-gpu", "--disable-background-networking");
         }
 
-        return options;
-    }
-
-    private static EdgeOptions getEdgeOptions() {
-        EdgeOptions options = new EdgeOptions();
-        options.addArguments("start-maximized", "--disable-notifications", "--disable-popup-blocking", "--disable-infobars",
-                "--disable-dev-shm-usage", "--disable-extensions");
-
-        options.setPageLoadStrategy(PageLoadStrategy.NORMAL);
-        options.setExperimentalOption("prefs", Map.of
-                (
-                        "profile.default_content_setting_values.notifications", 2,
-                        "credential_enable_service", false,
-                        "profile.password_manager_enabled", false,
-                        "autofill.profile.enable", false
-                )
-        );
+        options.setExperimentalOption("prefs", prefs);
+        options.setPageLoadStrategy(profile.getPageLoadStrategy());
+        // Leave unexpected alerts open for the test to inspect instead of dismissing them on the next command
+        options.setUnhandledPromptBehaviour(UnexpectedAlertBehaviour.IGNORE);
 
-        if (!ConfigReader.get("executionType").equalsIgnoreCase("local")) {
-            options.addArguments("--headless");
-        }
-
-        return options;
+        // Keep the browser console readable for failure artifacts
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.BROWSER, Level.ALL);
+        options.setCapability(options instanceof EdgeOptions ? "ms:loggingPrefs" : "goog:loggingPrefs", logging);
     }
-
-
-}
\ No newline at end of file
+}
@@ -1,19 +1,59 @@
 package driver;
 
+import config.ConfigReader;
 import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ExecutionTimeline;
 
 public class DriverManager
 {
+    private static final Logger logger = LoggerFactory.getLogger(DriverManager.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
 
     private DriverManager() {}
 
+    /**
+     * Binds a browser session to the current thread: leased from {@link DriverPool} when
+     * driver.pool.enabled=true, otherwise a fresh browser is launched.
+     */
     public static void createDriver(String browserName)
     {
-        WebDriver driver = BrowserFactory.getBrowserDriver(browserName);
+        if (driverThreadLocal.get() != null)
+        {
+            // A previous method on this thread did not tear down; never let its session leak into this one
+            logger.warn("Thread {} still holds a WebDriver from a previous test, releasing it", Thread.currentThread().getName());
+            quitDriver();
+        }
+
+        WebDriver driver = ExecutionTimeline.time(ExecutionTimeline.Category.DRIVER, DriverManager.class.getName(),
+                "createDriver", browserName, () -> DriverPool.isEnabled()
+                        ? DriverPool.lease(browserName)
+                        : DriverPool.launch(browserName));
         driverThreadLocal.set(driver);
     }
 
+    /**
+     * Binds an already created session to the current thread, e.g. a stub driver in benchmarks.
+     * The session is quit by {@link #quitDriver()} like any other.
+     */
+    public static void setDriver(WebDriver driver)
+    {
+        driverThreadLocal.set(driver);
+    }
+
+    /**
+     * Pre-launches pooled sessions (driver.pool.prewarm) so the first tests do not pay the browser launch.
+     * Does nothing when the pool is disabled.
+     */
+    public static void warmUp(String browserName)
+    {
+        if (DriverPool.isEnabled())
+        {
+            DriverPool.prewarm(browserName, ConfigReader.getInt("driver.pool.prewarm", 0));
+        }
+    }
+
     public static WebDriver getDriver()
     {
         if (driverThreadLocal.get() == null)
@@ -23,12 +63,34 @@ public class DriverManager
         return driverThreadLocal.get();
     }
 
+    /**
+     * Whether a session is bound to the current thread, e.g. to skip browser captures after a setup failure.
+     */
+    public static boolean hasDriver()
+    {
+        return driverThreadLocal.get() != null;
+    }
+
+    /**
+     * Unbinds the current thread's session: returned to the pool in pooled mode, quit otherwise.
+     */
     public static void quitDriver()
     {
-        if (driverThreadLocal.get() != null)
+        WebDriver driver = driverThreadLocal.get();
+        if (driver != null)
         {
-            driverThreadLocal.get().quit();
+            ExecutionTimeline.time(ExecutionTimeline.Category.DRIVER, DriverManager.class.getName(), "quitDriver", "", () ->
+            {
+                if (DriverPool.isEnabled())
+                {
+                    DriverPool.release(driver);
+                } else
+                {
+                    NetworkBlocker.detach(driver);
+                    driver.quit();
+                }
+            });
             driverThreadLocal.remove();
         }
     }
-}
\ No newline at end of file
+}
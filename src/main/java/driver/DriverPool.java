@@ -0,0 +1,286 @@
+package driver;
+
+import config.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded pool of pre-launched WebDriver sessions keyed by browser type.
+ * <p>
+ * A session is leased by one thread at a time through {@link DriverManager}. On release it is reset
+ * (extra windows closed, cookies and local/session storage cleared, navigated to about:blank) and kept warm
+ * for the next lease. Sessions are quit and replaced after {@code driver.pool.max.uses} leases or when they
+ * fail a health check. At most {@code driver.pool.size} sessions per browser are leased at the same time.
+ * <p>
+ * Config keys: driver.pool.enabled, driver.pool.size, driver.pool.max.uses, driver.pool.prewarm,
+ * driver.pool.lease.timeout (seconds).
+ */
+public class DriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+
+    private static final Map<String, BrowserSlot> slots = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private static final DriverPoolStats stats = new DriverPoolStats();
+    private static final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+
+    private DriverPool() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("driver.pool.enabled", false);
+    }
+
+    public static int getPoolSize() {
+        return ConfigReader.getInt("driver.pool.size", Runtime.getRuntime().availableProcessors());
+    }
+
+    public static DriverPoolStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Leases a warm session for the given browser, launching a new one when none is idle.
+     * Blocks while all {@code driver.pool.size} sessions of that browser are leased.
+     *
+     * @param browserName browser type (chrome, firefox, edge)
+     * @return leased WebDriver, to be handed back with {@link #release(WebDriver)}
+     */
+    public static WebDriver lease(String browserName) {
+        BrowserSlot slot = slotFor(browserName);
+        try {
+            if (!slot.permits.tryAcquire(ConfigReader.getInt("driver.pool.lease.timeout", 120), TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a free " + slot.browserName + " session in the driver pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + slot.browserName + " session", e);
+        }
+
+        try {
+            PooledDriver pooled = takeHealthyIdle(slot);
+            if (pooled != null) {
+                stats.recordHit();
+            } else {
+                stats.recordMiss();
+                pooled = new PooledDriver(slot.browserName, launch(slot.browserName));
+            }
+            pooled.uses++;
+            leased.put(pooled.driver, pooled);
+            logger.debug("Leased {} session (use #{})", slot.browserName, pooled.uses);
+            return pooled.driver;
+        } catch (RuntimeException e) {
+            slot.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands a leased session back to the pool. The session is reset and kept warm, or quit when it has
+     * reached its use limit or cannot be reset. Drivers that were not leased from the pool are simply quit.
+     *
+     * @param driver WebDriver previously returned by {@link #lease(String)}
+     */
+    public static void release(WebDriver driver) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            quitQuietly(driver);
+            return;
+        }
+
+        BrowserSlot slot = slotFor(pooled.browserName);
+        try {
+            if (pooled.uses >= ConfigReader.getInt("driver.pool.max.uses", 25)) {
+                stats.recordRecycledByUses();
+                logger.debug("Recycling {} session after {} uses", pooled.browserName, pooled.uses);
+                quitQuietly(pooled.driver);
+            } else if (reset(pooled.driver)) {
+                slot.idle.offerFirst(pooled);
+            } else {
+                stats.recordRecycledByHealthCheck();
+                quitQuietly(pooled.driver);
+            }
+        } finally {
+            slot.permits.release();
+        }
+    }
+
+    /**
+     * Launches sessions up front so the first tests of the run are served from the pool.
+     * Launches run in parallel and never exceed the configured pool size.
+     *
+     * @param browserName browser type (chrome, firefox, edge)
+     * @param count       number of sessions to pre-launch
+     */
+    public static void prewarm(String browserName, int count) {
+        BrowserSlot slot = slotFor(browserName);
+        int toLaunch = Math.min(count, getPoolSize()) - slot.idle.size();
+        if (toLaunch <= 0) {
+            return;
+        }
+
+        logger.info("Pre-launching {} {} session(s) for the driver pool", toLaunch, slot.browserName);
+        ExecutorService executor = Executors.newFixedThreadPool(toLaunch);
+        try {
+            List<Future<WebDriver>> launches = new ArrayList<>();
+            for (int i = 0; i < toLaunch; i++) {
+                launches.add(executor.submit(() -> launch(slot.browserName)));
+            }
+            for (Future<WebDriver> launch : launches) {
+                try {
+                    slot.idle.offerLast(new PooledDriver(slot.browserName, launch.get()));
+                } catch (Exception e) {
+                    logger.warn("Failed to pre-launch {} session: {}", slot.browserName, e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Quits every idle session, logs the pool statistics and writes the {@link LaunchProfileReport}.
+     * Called when the suite finishes, while logging is still up.
+     */
+    public static void shutdown() {
+        quitIdle();
+        if (isEnabled() && stats.getLaunches() > 0) {
+            logger.info("Driver pool statistics: {}", stats);
+        }
+        LaunchProfileReport.write();
+    }
+
+    /**
+     * Quits the sessions still idle in the pool. Also runs as a JVM shutdown hook once the pool is used, so an
+     * aborted run does not leave browsers behind; it does not log, logging may already be shut down.
+     */
+    private static void quitIdle() {
+        for (BrowserSlot slot : slots.values()) {
+            PooledDriver pooled;
+            while ((pooled = slot.idle.pollFirst()) != null) {
+                quitQuietly(pooled.driver);
+            }
+        }
+    }
+
+    /**
+     * Launches a new browser session with the current {@link LaunchProfile} and records its launch latency.
+     */
+    static WebDriver launch(String browserName) {
+        LaunchProfile profile = LaunchProfile.current();
+        long start = System.nanoTime();
+        WebDriver driver = BrowserFactory.getBrowserDriver(browserName, profile);
+        long elapsed = System.nanoTime() - start;
+        stats.recordLaunch(elapsed);
+        LaunchProfileReport.record(profile, browserName, elapsed);
+        logger.info("Launched {} session ({} profile) in {} ms", browserName, profile, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return driver;
+    }
+
+    private static BrowserSlot slotFor(String browserName) {
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::quitIdle, "driver-pool-shutdown"));
+        }
+        return slots.computeIfAbsent(browserName.toLowerCase(), name -> new BrowserSlot(name, getPoolSize()));
+    }
+
+    private static PooledDriver takeHealthyIdle(BrowserSlot slot) {
+        PooledDriver pooled;
+        while ((pooled = slot.idle.pollFirst()) != null) {
+            if (isHealthy(pooled.driver)) {
+                return pooled;
+            }
+            stats.recordRecycledByHealthCheck();
+            logger.warn("Discarding unhealthy {} session from the pool", slot.browserName);
+            quitQuietly(pooled.driver);
+        }
+        return null;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings a session back to a blank state: closes extra windows, clears cookies and storage and
+     * navigates to about:blank. Storage is cleared before leaving the page because it is origin-bound.
+     *
+     * @return false if the session could not be reset and must not be reused
+     */
+    private static boolean reset(WebDriver driver) {
+        try {
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored) {
+                // nothing to dismiss
+            }
+
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (String handle : handles.subList(1, handles.size())) {
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(handles.get(0));
+
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor js) {
+                js.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset pooled session, it will be discarded: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        NetworkBlocker.detach(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Ignoring failure while quitting driver: {}", e.getMessage());
+        }
+    }
+
+    private static final class BrowserSlot {
+        private final String browserName;
+        private final Semaphore permits;
+        private final LinkedBlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+
+        private BrowserSlot(String browserName, int size) {
+            this.browserName = browserName;
+            this.permits = new Semaphore(size, true);
+        }
+    }
+
+    private static final class PooledDriver {
+        private final String browserName;
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledDriver(String browserName, WebDriver driver) {
+            this.browserName = browserName;
+            this.driver = driver;
+        }
+    }
+}
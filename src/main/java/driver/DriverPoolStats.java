@@ -0,0 +1,90 @@
+package driver;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Counters for browser session reuse: pool hits/misses, recycled sessions and browser launch latency.
+ * Launches are recorded in both pooled and launch-per-test mode so the two can be compared run over run.
+ */
+public class DriverPoolStats {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recycledByUses = new AtomicLong();
+    private final AtomicLong recycledByHealthCheck = new AtomicLong();
+    private final AtomicLong launches = new AtomicLong();
+    private final AtomicLong launchNanos = new AtomicLong();
+    private final LongAccumulator maxLaunchNanos = new LongAccumulator(Math::max, 0);
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordRecycledByUses() {
+        recycledByUses.incrementAndGet();
+    }
+
+    void recordRecycledByHealthCheck() {
+        recycledByHealthCheck.incrementAndGet();
+    }
+
+    void recordLaunch(long nanos) {
+        launches.incrementAndGet();
+        launchNanos.addAndGet(nanos);
+        maxLaunchNanos.accumulate(nanos);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getLaunches() {
+        return launches.get();
+    }
+
+    public long getRecycledByUses() {
+        return recycledByUses.get();
+    }
+
+    public long getRecycledByHealthCheck() {
+        return recycledByHealthCheck.get();
+    }
+
+    public double getAverageLaunchMillis() {
+        long count = launches.get();
+        return count == 0 ? 0 : launchNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxLaunchMillis() {
+        return maxLaunchNanos.get() / 1_000_000.0;
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Launch time avoided by serving leases from warm sessions, estimated from the average observed launch.
+     */
+    public double getEstimatedSavedMillis() {
+        return hits.get() * getAverageLaunchMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRatio=%.1f%%, launches=%d, avgLaunch=%.0fms, maxLaunch=%.0fms, "
+                        + "recycled(uses)=%d, recycled(health)=%d, estimatedSaved=%.1fs",
+                getHits(), getMisses(), getHitRatio() * 100, getLaunches(), getAverageLaunchMillis(), getMaxLaunchMillis(),
+                getRecycledByUses(), getRecycledByHealthCheck(), getEstimatedSavedMillis() / 1000);
+    }
+}
@@ -0,0 +1,203 @@
+package driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.ConfigReader;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates {@link RemoteWebDriver} sessions on a Selenium Grid (executionType=remote).
+ * <p>
+ * Session creation is throttled to the grid's capacity: a permit is taken before a session is requested and
+ * handed back when the session is quit, so parallel threads wait locally instead of queueing on the grid or
+ * failing when every node slot is busy. The capacity is grid.max.sessions, or with {@code auto} the number of
+ * slots reported by the grid's /status endpoint. Failed session requests are retried with exponential backoff.
+ * <p>
+ * Config keys: grid.url, grid.max.sessions, grid.session.retries, grid.session.backoff.ms,
+ * grid.slot.timeout (seconds).
+ */
+public class GridSessionFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridSessionFactory.class);
+
+    private static volatile Semaphore slots;
+
+    private GridSessionFactory() {
+    }
+
+    public static boolean isRemote() {
+        return ConfigReader.get("executionType", "local").equalsIgnoreCase("remote");
+    }
+
+    public static String getGridUrl() {
+        String url = ConfigReader.get("grid.url", "http://localhost:4444");
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Requests a new session for the given capabilities, waiting for a free grid slot first.
+     *
+     * @param capabilities browser options built by {@link BrowserFactory}
+     * @return remote session; quitting it frees the grid slot
+     */
+    public static WebDriver createSession(Capabilities capabilities) {
+        Semaphore permits = slots();
+        acquire(permits, capabilities.getBrowserName());
+        try {
+            return requestWithRetry(capabilities, permits);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of sessions the grid can run at once: grid.max.sessions, or the slots reported by /status
+     * when set to auto. Falls back to the driver pool size when the grid cannot be reached.
+     */
+    public static int getCapacity() {
+        String configured = ConfigReader.get("grid.max.sessions", "auto");
+        if (!configured.equalsIgnoreCase("auto")) {
+            return Math.max(1, Integer.parseInt(configured));
+        }
+        int reported = fetchSlotCount();
+        if (reported > 0) {
+            return reported;
+        }
+        logger.warn("Could not read the slot count from {}/status, assuming {} sessions", getGridUrl(), DriverPool.getPoolSize());
+        return DriverPool.getPoolSize();
+    }
+
+    private static Semaphore slots() {
+        if (slots == null) {
+            synchronized (GridSessionFactory.class) {
+                if (slots == null) {
+                    int capacity = getCapacity();
+                    logger.info("Throttling remote sessions on {} to {} at a time", getGridUrl(), capacity);
+                    slots = new Semaphore(capacity, true);
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static void acquire(Semaphore permits, String browserName) {
+        try {
+            if (!permits.tryAcquire(ConfigReader.getInt("grid.slot.timeout", 300), TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a free grid slot for " + browserName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a grid slot for " + browserName, e);
+        }
+    }
+
+    private static WebDriver requestWithRetry(Capabilities capabilities, Semaphore permits) {
+        URL hub = hubUrl();
+        int retries = ConfigReader.getInt("grid.session.retries", 3);
+        long backoff = ConfigReader.getInt("grid.session.backoff.ms", 2000);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return new ThrottledRemoteWebDriver(hub, capabilities, permits);
+            } catch (WebDriverException e) {
+                if (attempt > retries) {
+                    throw new WebDriverException("Could not create a " + capabilities.getBrowserName()
+                            + " session on " + hub + " after " + attempt + " attempt(s)", e);
+                }
+                logger.warn("Session request to {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        hub, attempt, retries + 1, backoff, e.getMessage().lines().findFirst().orElse(""));
+                sleep(backoff);
+                backoff *= 2;
+            }
+        }
+    }
+
+    private static int fetchSlotCount() {
+        try {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(getGridUrl() + "/status"))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return 0;
+            }
+
+            int count = 0;
+            JsonNode nodes = new ObjectMapper().readTree(response.body()).path("value").path("nodes");
+            for (JsonNode node : nodes) {
+                if (node.path("availability").asText("UP").equalsIgnoreCase("UP")) {
+                    count += node.path("slots").size();
+                }
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            logger.debug("Grid status request failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static URL hubUrl() {
+        try {
+            return URI.create(getGridUrl()).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid grid.url: " + getGridUrl(), e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying session creation", e);
+        }
+    }
+
+    /**
+     * Remote session that hands its grid slot back exactly once when it is quit.
+     */
+    private static class ThrottledRemoteWebDriver extends RemoteWebDriver {
+        private final Semaphore permits;
+        private boolean released;
+
+        ThrottledRemoteWebDriver(URL hub, Capabilities capabilities, Semaphore permits) {
+            super(hub, capabilities);
+            this.permits = permits;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                synchronized (this) {
+                    if (!released) {
+                        released = true;
+                        permits.release();
+                    }
+                }
+            }
+        }
+    }
+}
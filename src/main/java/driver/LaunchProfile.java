@@ -0,0 +1,118 @@
+package driver;
+
+import config.ConfigReader;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Named browser launch profiles, selected with browser.profile in config.properties or -Dbrowser.profile=...
+ * <ul>
+ *   <li>{@code default} - headed and maximized, full page loads; headless when executionType=headless</li>
+ *   <li>{@code fast-headless} - new headless mode, fixed window, no images/remote fonts/GPU/background networking,
+ *   EAGER page loads (the page objects wait explicitly for what they need)</li>
+ *   <li>{@code debug} - headed and maximized with browser extensions and images, for stepping through a test</li>
+ *   <li>{@code ci} - new headless mode, fixed window, no GPU/background networking, full page loads</li>
+ * </ul>
+ * The fixed window size can be overridden with browser.window.size (e.g. 1366x768). URL patterns blocked per
+ * profile come from network.block.&lt;profile&gt;, see {@link NetworkBlocker}.
+ */
+public enum LaunchProfile {
+
+    DEFAULT("default", false, false, PageLoadStrategy.NORMAL),
+    FAST_HEADLESS("fast-headless", true, true, PageLoadStrategy.EAGER),
+    DEBUG("debug", false, false, PageLoadStrategy.NORMAL),
+    CI("ci", true, false, PageLoadStrategy.NORMAL);
+
+    private static final Dimension DEFAULT_WINDOW_SIZE = new Dimension(1920, 1080);
+
+    private final String id;
+    private final boolean headless;
+    private final boolean lean;
+    private final PageLoadStrategy pageLoadStrategy;
+
+    LaunchProfile(String id, boolean headless, boolean lean, PageLoadStrategy pageLoadStrategy) {
+        this.id = id;
+        this.headless = headless;
+        this.lean = lean;
+        this.pageLoadStrategy = pageLoadStrategy;
+    }
+
+    /**
+     * Profile selected by browser.profile, {@link #DEFAULT} when not set.
+     */
+    public static LaunchProfile current() {
+        return fromId(ConfigReader.get("browser.profile", DEFAULT.id));
+    }
+
+    public static LaunchProfile fromId(String id) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.id.equalsIgnoreCase(id) || profile.name().equalsIgnoreCase(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported browser profile: " + id));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isHeadless() {
+        // The default profile keeps honouring executionType=headless
+        return headless || (this == DEFAULT && ConfigReader.isHeadless());
+    }
+
+    /**
+     * Whether images, remote fonts, GPU and background networking are disabled.
+     */
+    public boolean isLean() {
+        return lean;
+    }
+
+    /**
+     * Headed profiles maximize the window; headless ones use a fixed window size.
+     */
+    public boolean isMaximized() {
+        return !isHeadless();
+    }
+
+    public boolean keepsExtensions() {
+        return this == DEBUG;
+    }
+
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Window size for headless profiles: browser.window.size (WIDTHxHEIGHT) or 1920x1080.
+     */
+    public Dimension getWindowSize() {
+        String size = ConfigReader.get("browser.window.size", "");
+        if (size.isEmpty()) {
+            return DEFAULT_WINDOW_SIZE;
+        }
+        String[] parts = size.toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("browser.window.size must be WIDTHxHEIGHT, got: " + size);
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    /**
+     * URL patterns blocked in this profile's sessions (network.block.&lt;id&gt;, comma-separated, "*" as wildcard),
+     * empty when nothing is blocked.
+     */
+    public List<String> getBlockedUrlPatterns() {
+        return Arrays.stream(ConfigReader.get("network.block." + id, "").split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .toList();
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
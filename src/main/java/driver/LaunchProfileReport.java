@@ -0,0 +1,109 @@
+package driver;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Browser startup times per launch profile and browser.
+ * <p>
+ * Every launch is recorded; when the suite finishes the run's launches are appended to launch.report.file
+ * (one row per launch) and a per-profile summary over all recorded runs is logged, so profiles can be compared
+ * by running the suite once with each -Dbrowser.profile=...
+ */
+public class LaunchProfileReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaunchProfileReport.class);
+
+    private static final String HEADER = "timestamp,profile,browser,launchMs";
+
+    private static final Map<String, List<Double>> launches = new ConcurrentHashMap<>();
+
+    private LaunchProfileReport() {
+    }
+
+    static void record(LaunchProfile profile, String browserName, long nanos) {
+        launches.computeIfAbsent(profile.getId() + "," + browserName.toLowerCase(),
+                        key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(nanos / 1_000_000.0);
+    }
+
+    /**
+     * Appends the launches recorded since the last call to the report file and logs the per-profile summary.
+     */
+    static synchronized void write() {
+        if (launches.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(ConfigReader.get("launch.report.file", "test-outputs/launch-profiles.csv"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        List<String> rows = new ArrayList<>();
+        for (String key : List.copyOf(launches.keySet())) {
+            List<Double> durations = launches.remove(key);
+            synchronized (durations) {
+                durations.forEach(ms -> rows.add(timestamp + "," + key + "," + String.format(Locale.ROOT, "%.0f", ms)));
+            }
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.notExists(file)) {
+                Files.writeString(file, HEADER + System.lineSeparator(), StandardCharsets.UTF_8);
+            }
+            Files.write(file, rows, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            logger.info("Browser startup times per profile ({}):{}{}", file, System.lineSeparator(), summarize(file));
+        } catch (IOException e) {
+            logger.warn("Failed to write launch profile report to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Launch count, p50, p95 and max startup time per profile and browser over every row in the report file.
+     */
+    static String summarize(Path file) throws IOException {
+        Map<String, List<Double>> history = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] columns = line.split(",");
+            if (columns.length != 4 || line.startsWith("timestamp")) {
+                continue;
+            }
+            history.computeIfAbsent(columns[1] + "," + columns[2], key -> new ArrayList<>())
+                    .add(Double.parseDouble(columns[3]));
+        }
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-16s %-8s %8s %8s %8s %8s",
+                "profile", "browser", "launches", "p50 ms", "p95 ms", "max ms"));
+        history.forEach((key, durations) -> {
+            List<Double> sorted = durations.stream().sorted().collect(Collectors.toList());
+            String[] parts = key.split(",");
+            table.append(System.lineSeparator()).append(String.format(Locale.ROOT, "%-16s %-8s %8d %8.0f %8.0f %8.0f",
+                    parts[0], parts[1], sorted.size(), percentile(sorted, 50), percentile(sorted, 95),
+                    sorted.get(sorted.size() - 1)));
+        });
+        return table.toString();
+    }
+
+    private static double percentile(List<Double> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
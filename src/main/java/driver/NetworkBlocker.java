@@ -0,0 +1,295 @@
+package driver;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks third-party and heavy resources (share widgets, analytics, fonts, images, media) in Chrome and Edge
+ * sessions through DevTools ({@code Network.setBlockedURLs}) and counts what was blocked.
+ * <p>
+ * The URL patterns are the session's {@link LaunchProfile#getBlockedUrlPatterns()}; a profile without patterns
+ * gets no DevTools connection at all. Each session counts blocked requests per pattern, the bytes they would
+ * have cost and the bytes actually transferred; {@code TestListener} drains the counters after every test.
+ * <p>
+ * The browser never learns the size of a request it did not send, so bytes saved are estimated from
+ * network.block.sizes.file. A run with -Dnetwork.block.dry-run=true fills it: matching requests are then
+ * loaded, counted as "would be blocked" with their real transfer size, and the sizes are stored per URL.
+ * <p>
+ * Firefox and remote sessions are not intercepted; the lean Firefox profile already blocks images and web fonts
+ * through preferences.
+ */
+public final class NetworkBlocker {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkBlocker.class);
+
+    // Network.loadingFailed reason for requests matched by Network.setBlockedURLs
+    private static final String BLOCKED_REASON = "inspector";
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+    private static final Map<String, Long> measuredSizes = new ConcurrentHashMap<>();
+    private static final AtomicLong runBlockedRequests = new AtomicLong();
+    private static final AtomicLong runBlockedBytes = new AtomicLong();
+    private static Map<String, Long> recordedSizes;
+
+    private NetworkBlocker() {
+    }
+
+    /**
+     * Requests blocked (or, in a dry run, matched) in a session since the last {@link #drain(WebDriver)}.
+     *
+     * @param blockedBytes     transfer size of the blocked requests, as far as it is known
+     * @param unknownSizes     blocked requests without a recorded size, not included in blockedBytes
+     * @param transferredBytes bytes of all requests that were loaded
+     * @param byPattern        blocked requests per URL pattern
+     */
+    public record Counts(int blockedRequests, long blockedBytes, int unknownSizes, long transferredBytes,
+                         boolean dryRun, Map<String, Integer> byPattern) {
+
+        public boolean isEmpty() {
+            return blockedRequests == 0 && transferredBytes == 0;
+        }
+
+        /**
+         * Plain text summary for a test attachment.
+         */
+        public String toText() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                    "%s requests: %d%nBytes saved: %d (%d requests of unknown size)%nBytes transferred: %d%n",
+                    dryRun ? "Would-be-blocked" : "Blocked", blockedRequests, blockedBytes, unknownSizes,
+                    transferredBytes));
+            byPattern.forEach((pattern, count) -> text.append(String.format(Locale.ROOT, "%6d  %s%n", count, pattern)));
+            return text.toString();
+        }
+    }
+
+    public static boolean isDryRun() {
+        return ConfigReader.getBoolean("network.block.dry-run", false);
+    }
+
+    /**
+     * Starts blocking the profile's URL patterns in a freshly launched session. Sessions that cannot be
+     * intercepted, or a DevTools failure, leave the session unblocked rather than failing the launch.
+     */
+    static void attach(WebDriver driver, LaunchProfile profile) {
+        List<String> patterns = profile.getBlockedUrlPatterns();
+        if (patterns.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof ChromiumDriver chromium)) {
+            logger.debug("Network blocking is only available for local Chrome and Edge sessions, not {}",
+                    driver.getClass().getSimpleName());
+            return;
+        }
+        try {
+            DevTools devTools = chromium.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Session session = new Session(patterns);
+            Event<Map<String, Object>> requestWillBeSent = event("Network.requestWillBeSent");
+            Event<Map<String, Object>> loadingFinished = event("Network.loadingFinished");
+            Event<Map<String, Object>> loadingFailed = event("Network.loadingFailed");
+            devTools.addListener(requestWillBeSent, session::onRequest);
+            devTools.addListener(loadingFinished, session::onFinished);
+            devTools.addListener(loadingFailed, session::onFailed);
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            if (!isDryRun()) {
+                devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", patterns)));
+            }
+            sessions.put(driver, session);
+            logger.debug("{} {} URL pattern(s) for the {} profile", isDryRun() ? "Watching" : "Blocking",
+                    patterns.size(), profile);
+        } catch (RuntimeException e) {
+            logger.warn("Network blocking not available, the session loads every resource: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts of the session since the last call, null when the session is not intercepted.
+     */
+    public static Counts drain(WebDriver driver) {
+        Session session = sessions.get(driver);
+        return session == null ? null : session.drain();
+    }
+
+    /**
+     * Forgets a session that is about to be quit.
+     */
+    static void detach(WebDriver driver) {
+        sessions.remove(driver);
+    }
+
+    /**
+     * Logs the run's totals and, after a dry run, merges the measured sizes into network.block.sizes.file.
+     * Totals and measured sizes are cleared afterwards, so calling it once per suite is safe.
+     */
+    public static synchronized void save() {
+        long blocked = runBlockedRequests.getAndSet(0);
+        long saved = runBlockedBytes.getAndSet(0);
+        if (blocked > 0) {
+            logger.info("Network blocking: {} {} requests, {} bytes saved", isDryRun() ? "would have blocked" : "blocked",
+                    blocked, saved);
+        }
+        if (measuredSizes.isEmpty()) {
+            return;
+        }
+        Map<String, Long> updated = new TreeMap<>(recordedSizes());
+        updated.putAll(measuredSizes);
+        measuredSizes.clear();
+
+        Path file = sizesFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), updated);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recordedSizes = updated;
+            logger.info("Sizes of {} blockable resources written to {}", updated.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write blockable resource sizes to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static synchronized Map<String, Long> recordedSizes() {
+        if (recordedSizes == null) {
+            Path file = sizesFile();
+            recordedSizes = new HashMap<>();
+            if (Files.exists(file)) {
+                try {
+                    recordedSizes.putAll(mapper.readValue(file.toFile(), new TypeReference<Map<String, Long>>() {
+                    }));
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable blockable resource sizes {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return recordedSizes;
+    }
+
+    private static Path sizesFile() {
+        return Paths.get(ConfigReader.get("network.block.sizes.file", "test-outputs/blocked-resource-sizes.json"));
+    }
+
+    /**
+     * Resource key for the size table: the URL without query string and fragment.
+     */
+    private static String resource(String url) {
+        int end = url.length();
+        for (char separator : new char[]{'?', '#'}) {
+            int index = url.indexOf(separator);
+            if (index >= 0) {
+                end = Math.min(end, index);
+            }
+        }
+        return url.substring(0, end);
+    }
+
+    /**
+     * Counters of one session. DevTools events arrive on the connection thread, drains on the test thread.
+     */
+    private static final class Session {
+        private final Map<String, Pattern> patterns = new LinkedHashMap<>();
+        private final boolean dryRun = isDryRun();
+        // Request id -> URL and pattern of the requests a pattern matched
+        private final Map<String, String[]> matched = new HashMap<>();
+        private Map<String, Integer> byPattern = new LinkedHashMap<>();
+        private int blockedRequests;
+        private long blockedBytes;
+        private int unknownSizes;
+        private long transferredBytes;
+
+        private Session(List<String> globs) {
+            for (String glob : globs) {
+                List<String> parts = new ArrayList<>();
+                for (String literal : glob.split("\\*", -1)) {
+                    parts.add(Pattern.quote(literal));
+                }
+                patterns.put(glob, Pattern.compile(String.join(".*", parts)));
+            }
+        }
+
+        private synchronized void onRequest(Map<String, Object> params) {
+            Object request = params.get("request");
+            String url = request instanceof Map<?, ?> map ? String.valueOf(map.get("url")) : "";
+            for (Map.Entry<String, Pattern> pattern : patterns.entrySet()) {
+                if (pattern.getValue().matcher(url).matches()) {
+                    matched.put(String.valueOf(params.get("requestId")), new String[]{url, pattern.getKey()});
+                    return;
+                }
+            }
+        }
+
+        private synchronized void onFinished(Map<String, Object> params) {
+            long bytes = params.get("encodedDataLength") instanceof Number number ? number.longValue() : 0;
+            transferredBytes += bytes;
+            String[] request = matched.remove(String.valueOf(params.get("requestId")));
+            if (request != null && dryRun) {
+                measuredSizes.put(resource(request[0]), bytes);
+                count(request[1], bytes);
+            }
+        }
+
+        private synchronized void onFailed(Map<String, Object> params) {
+            String[] request = matched.remove(String.valueOf(params.get("requestId")));
+            if (request == null || !BLOCKED_REASON.equals(params.get("blockedReason"))) {
+                return;
+            }
+            Long size = recordedSizes().get(resource(request[0]));
+            if (size == null) {
+                unknownSizes++;
+            }
+            count(request[1], size == null ? 0 : size);
+        }
+
+        private void count(String pattern, long bytes) {
+            blockedRequests++;
+            blockedBytes += bytes;
+            byPattern.merge(pattern, 1, Integer::sum);
+            runBlockedRequests.incrementAndGet();
+            runBlockedBytes.addAndGet(bytes);
+        }
+
+        private synchronized Counts drain() {
+            Counts counts = new Counts(blockedRequests, blockedBytes, unknownSizes, transferredBytes, dryRun, byPattern);
+            byPattern = new LinkedHashMap<>();
+            blockedRequests = 0;
+            blockedBytes = 0;
+            unknownSizes = 0;
+            transferredBytes = 0;
+            // Requests still in flight belong to a page the next test no longer looks at
+            matched.clear();
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Changed code for the {@link ImpactSelector}: whole classes, single methods of a class, or "everything" when a
+ * change cannot be attributed (build file, resources, test data).
+ * <p>
+ * Built either from a list such as "pages.shop.CheckoutPage, base.BasePage#clickOnElement" (source file paths
+ * are accepted too) or from {@code git diff} against a ref, where every changed line is mapped to the method
+ * declared around it in the current source; lines outside a method body (fields, imports, doc comments) count
+ * as a change of the whole class.
+ */
+final class ChangeSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeSet.class);
+
+    private static final List<String> SOURCE_ROOTS = List.of("src/main/java/", "src/test/java/");
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+    // Member declarations of a top-level class: one indent level, a modifier or type, a name and "("
+    private static final Pattern METHOD = Pattern.compile(
+            "^ {4}(?:(?:public|protected|private|static|final|synchronized|abstract|default)\\s+)*"
+                    + "(?:<[^>]+>\\s+)?(?:[\\w.$]+(?:<[^()]*>)?(?:\\[])*\\s+)?(\\w+)\\s*\\([^;]*$");
+
+    private final Set<String> classes = new TreeSet<>();
+    private final Map<String, Set<String>> methods = new LinkedHashMap<>();
+    private final Set<String> unattributed = new LinkedHashSet<>();
+
+    private ChangeSet() {
+    }
+
+    /**
+     * Parses a comma-separated list of class names, "Class#method" entries and source file paths.
+     */
+    static ChangeSet ofList(String list) {
+        ChangeSet changes = new ChangeSet();
+        for (String item : list.split("[,\\s]+")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            if (item.contains("/") || item.endsWith(".java") || Files.isRegularFile(Paths.get(item))) {
+                changes.addFile(item, null);
+            } else if (item.contains("#")) {
+                String[] parts = item.split("#", 2);
+                changes.methods.computeIfAbsent(parts[0], key -> new TreeSet<>()).add(parts[1]);
+            } else {
+                changes.classes.add(item);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Runs {@code git diff -U0 <ref>} in the working directory: committed and uncommitted changes to tracked files.
+     *
+     * @throws IllegalStateException if git fails
+     */
+    static ChangeSet ofGitDiff(String ref) {
+        ChangeSet changes = new ChangeSet();
+        String file = null;
+        List<int[]> ranges = new ArrayList<>();
+        for (String line : git("diff", "-U0", "--no-color", "--no-ext-diff", ref)) {
+            if (line.startsWith("diff --git ")) {
+                if (file != null) {
+                    changes.addFile(file, ranges);
+                }
+                // "diff --git a/<path> b/<path>": the new path, or the old one for deletions below
+                file = line.substring(line.indexOf(" b/") + 3);
+                ranges = new ArrayList<>();
+            } else if (line.startsWith("--- a/") && file == null) {
+                file = line.substring(6);
+            } else {
+                Matcher hunk = HUNK.matcher(line);
+                if (hunk.find()) {
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) == null ? 1 : Integer.parseInt(hunk.group(2));
+                    // A pure deletion is reported after line "start"; attribute it to that line
+                    ranges.add(new int[]{start, Math.max(start, start + count - 1)});
+                }
+            }
+        }
+        if (file != null) {
+            changes.addFile(file, ranges);
+        }
+        return changes;
+    }
+
+    /**
+     * Classes changed as a whole.
+     */
+    Set<String> classes() {
+        return classes;
+    }
+
+    /**
+     * Changed methods per class.
+     */
+    Map<String, Set<String>> methods() {
+        return methods;
+    }
+
+    /**
+     * Changed files that may affect any test, e.g. pom.xml or config.properties.
+     */
+    Set<String> unattributed() {
+        return unattributed;
+    }
+
+    boolean isEmpty() {
+        return classes.isEmpty() && methods.isEmpty() && unattributed.isEmpty();
+    }
+
+    /**
+     * Moves a method change to a change of its whole class, e.g. when the method is not in the impact index.
+     */
+    void widen(String className) {
+        methods.remove(className);
+        classes.add(className);
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>(classes);
+        methods.forEach((className, names) -> names.forEach(name -> parts.add(className + "#" + name)));
+        parts.addAll(unattributed);
+        return parts.isEmpty() ? "(none)" : String.join(", ", parts);
+    }
+
+    private void addFile(String path, List<int[]> ranges) {
+        String normalized = path.replace('\\', '/');
+        String root = SOURCE_ROOTS.stream().filter(normalized::contains).findFirst().orElse(null);
+        if (root == null || !normalized.endsWith(".java")) {
+            if (normalized.startsWith("src/") || normalized.equals("pom.xml")) {
+                unattributed.add(normalized);
+            }
+            // Anything else (docs, suite files, CI config) does not change what a test does
+            return;
+        }
+        String className = normalized.substring(normalized.indexOf(root) + root.length(), normalized.length() - 5)
+                .replace('/', '.');
+        Path source = Paths.get(normalized);
+        if (ranges == null || ranges.isEmpty() || !Files.exists(source)) {
+            classes.add(className);
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(source, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            classes.add(className);
+            return;
+        }
+        Set<String> changed = new TreeSet<>();
+        for (int[] range : ranges) {
+            for (int line = range[0]; line <= range[1]; line++) {
+                String method = enclosingMethod(lines, line);
+                if (method == null) {
+                    classes.add(className);
+                    return;
+                }
+                changed.add(method);
+            }
+        }
+        methods.computeIfAbsent(className, key -> new TreeSet<>()).addAll(changed);
+    }
+
+    /**
+     * Name of the method whose declaration or body contains the 1-based line, null outside of any method.
+     */
+    static String enclosingMethod(List<String> lines, int line) {
+        for (int i = Math.min(line, lines.size()) - 1; i >= 0; i--) {
+            String text = lines.get(i);
+            if (i < line - 1 && text.equals("    }")) {
+                // Passed the end of an earlier member before reaching a declaration
+                return null;
+            }
+            Matcher method = METHOD.matcher(text);
+            if (method.find()) {
+                for (int end = i + 1; end < lines.size(); end++) {
+                    if (lines.get(end).equals("    }")) {
+                        return end + 1 >= line ? method.group(1) : null;
+                    }
+                }
+                return method.group(1);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> output = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(output::add);
+            }
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IllegalStateException(String.join(" ", command) + " failed: " + String.join("\n", output));
+            }
+            logger.debug("{}: {} lines", String.join(" ", command), output.size());
+            return output;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot run git: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running git", e);
+        }
+    }
+}
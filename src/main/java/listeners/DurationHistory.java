@@ -0,0 +1,156 @@
+package listeners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical test durations per test method, kept in a small JSON file (duration.history.file).
+ * <p>
+ * {@link TestListener} records every finished invocation; when a suite finishes, the run's total per method
+ * (all data-provider invocations together) is folded into the stored value as an exponential moving average
+ * (duration.history.alpha) and the file is rewritten. Methods that did not run keep their stored value, so a
+ * sharded run only refreshes its own share.
+ */
+public final class DurationHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<String, Double> runTotals = new ConcurrentHashMap<>();
+    private static Map<String, Entry> history;
+
+    private DurationHistory() {
+    }
+
+    /**
+     * Stored duration of one test method.
+     *
+     * @param millis average total duration of the method per run
+     * @param runs   number of runs folded into the average
+     */
+    public record Entry(double millis, int runs) {
+    }
+
+    /**
+     * Predicted duration of every given test method in millis. Methods that never ran are costed at the average
+     * of the known ones, or 1 ms each when none is known (so the methods are weighted by count).
+     *
+     * @param methodIds method ids, see {@link TestIds#of(org.testng.ITestNGMethod)}
+     * @return estimate per method id
+     */
+    public static synchronized Map<String, Double> estimates(Collection<String> methodIds) {
+        return estimates(load(), methodIds);
+    }
+
+    /**
+     * Same as {@link #estimates(Collection)}, but from a history file given explicitly (e.g. a snapshot shared by
+     * all shards) instead of duration.history.file. The file is only read.
+     *
+     * @throws IllegalStateException if the file cannot be read
+     */
+    public static Map<String, Double> estimates(Collection<String> methodIds, Path snapshot) {
+        try {
+            return estimates(read(snapshot), methodIds);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read duration history snapshot " + snapshot + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Double> estimates(Map<String, Entry> entries, Collection<String> methodIds) {
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        double knownSum = 0;
+        int known = 0;
+        for (String id : methodIds) {
+            Entry entry = entries.get(id);
+            if (entry != null && !estimates.containsKey(id)) {
+                estimates.put(id, entry.millis());
+                knownSum += entry.millis();
+                known++;
+            }
+        }
+        double fallback = known == 0 ? 1.0 : knownSum / known;
+        for (String id : methodIds) {
+            estimates.putIfAbsent(id, fallback);
+        }
+        return estimates;
+    }
+
+    /**
+     * Adds one finished invocation to the current run.
+     */
+    static void record(String methodId, long millis) {
+        runTotals.merge(methodId, (double) millis, Double::sum);
+    }
+
+    /**
+     * Folds the run's durations into the history and writes the file. The run's totals are cleared afterwards,
+     * so calling it once per suite is safe.
+     */
+    static synchronized void save() {
+        if (runTotals.isEmpty()) {
+            return;
+        }
+        double alpha = Double.parseDouble(ConfigReader.get("duration.history.alpha", "0.5"));
+        Map<String, Entry> updated = new TreeMap<>(load());
+        runTotals.forEach((id, millis) -> {
+            Entry previous = updated.get(id);
+            updated.put(id, previous == null
+                    ? new Entry(millis, 1)
+                    : new Entry(alpha * millis + (1 - alpha) * previous.millis(), previous.runs() + 1));
+        });
+        runTotals.clear();
+
+        Path file = file();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), updated);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            history = updated;
+            logger.info("Duration history of {} test methods written to {}", updated.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write duration history to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Entry> load() {
+        if (history == null) {
+            Path file = file();
+            history = new TreeMap<>();
+            if (Files.exists(file)) {
+                try {
+                    history.putAll(read(file));
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable duration history {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return history;
+    }
+
+    private static Map<String, Entry> read(Path file) throws IOException {
+        return mapper.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() {
+        });
+    }
+
+    private static Path file() {
+        return Paths.get(ConfigReader.get("duration.history.file", "test-outputs/duration-history.json"));
+    }
+}
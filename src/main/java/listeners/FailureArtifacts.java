@@ -0,0 +1,79 @@
+package listeners;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ArtifactWriter;
+import utils.ArtifactWriter.Artifact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Captures the browser state of a failed test: screenshot, page source, cookies and browser console log.
+ * Only the driver calls run on the test thread; writing is handed to {@link ArtifactWriter}. Every capture is
+ * independent, so a dead session or an unsupported log type only drops that one artifact.
+ */
+final class FailureArtifacts {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailureArtifacts.class);
+
+    private FailureArtifacts() {
+    }
+
+    static List<Artifact> capture(WebDriver driver) {
+        long start = System.nanoTime();
+        List<Artifact> artifacts = new ArrayList<>();
+        add(artifacts, "Screenshot", "image/png", ".png", false,
+                () -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        add(artifacts, "Page source", "text/html", ".html", true,
+                () -> (driver.getCurrentUrl() + "\n" + driver.getPageSource()).getBytes(StandardCharsets.UTF_8));
+        add(artifacts, "Cookies", "application/json", ".json", true, () -> cookies(driver));
+        add(artifacts, "Browser console", "text/plain", ".log", true, () -> consoleLog(driver));
+        logger.debug("Captured {} failure artifacts in {} ms", artifacts.size(), (System.nanoTime() - start) / 1_000_000);
+        return artifacts;
+    }
+
+    private static void add(List<Artifact> artifacts, String name, String type, String extension, boolean compress,
+                            Supplier<byte[]> capture) {
+        try {
+            byte[] content = capture.get();
+            if (content != null && content.length > 0) {
+                artifacts.add(new Artifact(name, type, extension, content, compress));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not capture {} for failure artifacts: {}", name,
+                    String.valueOf(e.getMessage()).lines().findFirst().orElse(""));
+        }
+    }
+
+    private static byte[] cookies(WebDriver driver) {
+        List<Object> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            cookies.add(cookie.toJson());
+        }
+        try {
+            return new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(cookies);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    // Chrome and Edge only (goog/ms:loggingPrefs, see BrowserFactory); Firefox has no log endpoint
+    private static byte[] consoleLog(WebDriver driver) {
+        StringBuilder log = new StringBuilder();
+        for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+            log.append(entry).append('\n');
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Failed and skipped test methods of the run, written to failure.manifest.file when a suite finishes and read
+ * back by {@link RerunFailuresListener} for -Drerun.failed=true.
+ * <p>
+ * Every entry names the suite and {@code <test>} it ran in, so reruns keep the {@code <test>} parameters (e.g.
+ * the browser). Data-driven methods list the failed data-provider rows; a skipped data-driven method reruns all
+ * rows. Methods the failed ones depend on are added as DEPENDENCY entries, because TestNG refuses to run a
+ * method whose dependency is not included. Attempts that the {@link RetryAnalyzer} retried are not entries.
+ */
+public final class FailureManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailureManifest.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<String, Failure> failures = new LinkedHashMap<>();
+
+    private FailureManifest() {
+    }
+
+    /**
+     * Manifest file content.
+     *
+     * @param createdAt when the run finished
+     * @param tests     one entry per method to rerun
+     */
+    public record Manifest(String createdAt, List<Entry> tests) {
+    }
+
+    /**
+     * One method to rerun.
+     *
+     * @param status FAILURE, SKIP or DEPENDENCY
+     * @param rows   data-provider rows to rerun; empty for all rows or a method without data provider
+     */
+    public record Entry(String suite, String test, String className, String method, String status, List<Integer> rows) {
+    }
+
+    private static final class Failure {
+        private final String suite;
+        private final String test;
+        private final ITestNGMethod method;
+        private String status;
+        private boolean allRows;
+
+        private Failure(String suite, String test, ITestNGMethod method) {
+            this.suite = suite;
+            this.test = test;
+            this.method = method;
+        }
+    }
+
+    /**
+     * Adds a failed or skipped invocation. Invocations that will be retried are ignored.
+     */
+    static synchronized void add(ITestResult result) {
+        if (result.wasRetried()) {
+            return;
+        }
+        String suite = result.getTestContext().getSuite().getName();
+        String test = result.getTestContext().getName();
+        Failure failure = failures.computeIfAbsent(key(suite, test, result.getMethod()),
+                key -> new Failure(suite, test, result.getMethod()));
+        boolean failed = result.getStatus() == ITestResult.FAILURE;
+        if (failure.status == null || failed) {
+            failure.status = failed ? "FAILURE" : "SKIP";
+        }
+        if (!failed) {
+            failure.allRows = true;
+        }
+    }
+
+    /**
+     * Writes every failure collected in this JVM so far (an empty list when all passed).
+     */
+    static synchronized void write() {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Failure failure : failures.values()) {
+            ITestNGMethod method = failure.method;
+            List<Integer> rows = !failure.allRows && method.isDataDriven()
+                    ? new ArrayList<>(new TreeSet<>(method.getFailedInvocationNumbers()))
+                    : List.of();
+            entries.put(key(failure.suite, failure.test, method), entry(failure.suite, failure.test, method, failure.status, rows));
+        }
+        for (Failure failure : failures.values()) {
+            Deque<ITestNGMethod> upstream = new ArrayDeque<>(failure.method.upstreamDependencies());
+            while (!upstream.isEmpty()) {
+                ITestNGMethod dependency = upstream.pop();
+                if (entries.putIfAbsent(key(failure.suite, failure.test, dependency),
+                        entry(failure.suite, failure.test, dependency, "DEPENDENCY", List.of())) == null) {
+                    upstream.addAll(dependency.upstreamDependencies());
+                }
+            }
+        }
+
+        Path file = file();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            mapper.writeValue(file.toFile(), new Manifest(Instant.now().toString(), new ArrayList<>(entries.values())));
+            logger.info("Failure manifest with {} methods written to {}", entries.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write failure manifest to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the manifest of the previous run, null if there is none.
+     */
+    static Manifest read() {
+        Path file = file();
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return mapper.readValue(file.toFile(), Manifest.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable failure manifest {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    static Path file() {
+        return Paths.get(ConfigReader.get("failure.manifest.file", "test-outputs/failed-tests.json"));
+    }
+
+    private static Entry entry(String suite, String test, ITestNGMethod method, String status, List<Integer> rows) {
+        return new Entry(suite, test, method.getRealClass().getName(), method.getMethodName(), status, rows);
+    }
+
+    private static String key(String suite, String test, ITestNGMethod method) {
+        return suite + "|" + test + "|" + TestIds.of(method);
+    }
+}
@@ -0,0 +1,126 @@
+package listeners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ExecutionTimeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test impact index: per test method, the framework code it exercised, kept in a JSON file (impact.index.file)
+ * and used by {@link ImpactSelector} to run only the tests affected by a change.
+ * <p>
+ * The entries are taken from the test's {@link ExecutionTimeline} events as "source#operation", e.g.
+ * "pages.shop.CheckoutPage#clickOnElement" for a BasePage action on the checkout page or
+ * "utils.WaitUtils#waitForElementToBeVisible" for a wait, so recording needs timeline.enabled=true.
+ * <p>
+ * A method whose invocations all passed replaces its stored entries when the suite finishes; a failed method
+ * may have stopped early, so its entries are only added to the stored ones. Methods that did not run keep
+ * their entries.
+ */
+public final class ImpactIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImpactIndex.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<String, Set<String>> runEntries = new ConcurrentHashMap<>();
+    private static final Set<String> incomplete = ConcurrentHashMap.newKeySet();
+    private static Map<String, Set<String>> index;
+
+    private ImpactIndex() {
+    }
+
+    /**
+     * Stored entries per test method id, empty when there is no index yet.
+     */
+    public static synchronized Map<String, Set<String>> entries() {
+        return load();
+    }
+
+    /**
+     * Adds the code exercised by one finished invocation to the current run.
+     *
+     * @param methodId method id, see {@link TestIds#of(org.testng.ITestNGMethod)}
+     * @param events   the invocation's timeline events
+     * @param passed   whether the invocation ran to the end
+     */
+    static void record(String methodId, Collection<ExecutionTimeline.TimelineEvent> events, boolean passed) {
+        Set<String> entries = runEntries.computeIfAbsent(methodId, key -> ConcurrentHashMap.newKeySet());
+        for (ExecutionTimeline.TimelineEvent event : events) {
+            if (event.category() != ExecutionTimeline.Category.TEST && event.source() != null) {
+                entries.add(event.source() + "#" + event.name());
+            }
+        }
+        if (!passed) {
+            incomplete.add(methodId);
+        }
+    }
+
+    /**
+     * Folds the run's entries into the index and writes the file. The run's entries are cleared afterwards,
+     * so calling it once per suite is safe.
+     */
+    static synchronized void save() {
+        if (runEntries.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> updated = new TreeMap<>(load());
+        runEntries.forEach((id, entries) -> {
+            Set<String> merged = new TreeSet<>(entries);
+            if (incomplete.contains(id)) {
+                merged.addAll(updated.getOrDefault(id, Set.of()));
+            }
+            updated.put(id, merged);
+        });
+        runEntries.clear();
+        incomplete.clear();
+
+        Path file = file();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writeValue(temp.toFile(), updated);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index = updated;
+            logger.info("Impact index of {} test methods written to {}", updated.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write impact index to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Set<String>> load() {
+        if (index == null) {
+            Path file = file();
+            index = new TreeMap<>();
+            if (Files.exists(file)) {
+                try {
+                    index.putAll(mapper.readValue(file.toFile(), new TypeReference<Map<String, Set<String>>>() {
+                    }));
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable impact index {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return index;
+    }
+
+    static Path file() {
+        return Paths.get(ConfigReader.get("impact.index.file", "test-outputs/impact-index.json"));
+    }
+}
@@ -0,0 +1,222 @@
+package listeners;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change-based test selection: runs only the tests that exercised the changed code according to the
+ * {@link ImpactIndex}, e.g.
+ * <pre>
+ *   mvn test -Dimpact.diff=origin/main
+ *   mvn test -Dimpact.changed=pages.shop.CheckoutPage,base.BasePage#clickOnElement
+ * </pre>
+ * A test is selected when one of its index entries is on a changed class (or a subclass of it, so a BasePage
+ * change reaches every page that inherits it) or uses a changed method of it. A changed method the index never
+ * saw (a page's own helper, a private method) counts as a change of its whole class. Test classes select their
+ * own methods, data provider classes the methods they feed.
+ * <p>
+ * The selection stays conservative: tests missing from the index or without entries always run, and a change that
+ * cannot be attributed (pom.xml, resources, test data, a class no test is known to use, pages included) runs
+ * everything. Methods a selected test depends on are kept so TestNG can run it. Without either property nothing is
+ * filtered.
+ */
+public class ImpactSelector implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImpactSelector.class);
+
+    private static final Map<String, Class<?>> loaded = new ConcurrentHashMap<>();
+
+    private ChangeSet changes;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ChangeSet changes = changes();
+        if (changes == null) {
+            return methods;
+        }
+        if (!changes.unattributed().isEmpty()) {
+            logger.info("Impact selection for '{}': running all {} methods, changes not attributable to tests: {}",
+                    context.getName(), methods.size(), changes.unattributed());
+            return methods;
+        }
+        Map<String, Set<String>> index = ImpactIndex.entries();
+        if (index.isEmpty()) {
+            logger.warn("Impact selection for '{}': no impact index at {}, running all {} methods",
+                    context.getName(), ImpactIndex.file(), methods.size());
+            return methods;
+        }
+
+        Set<String> selected = new HashSet<>();
+        int unindexed = 0;
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String id = TestIds.of(method);
+            // An empty entry set (recorded without a timeline) would never match a change
+            if (index.getOrDefault(id, Set.of()).isEmpty()) {
+                unindexed++;
+                selected.add(id);
+            } else if (isImpacted(method, index.get(id), changes)) {
+                selected.add(id);
+            }
+        }
+        Set<String> required = addDependencies(methods, selected);
+
+        List<IMethodInstance> kept = methods.stream()
+                .filter(instance -> selected.contains(TestIds.of(instance.getMethod())))
+                .toList();
+        logger.info("Impact selection for '{}': {} of {} methods ({} not in the index, {} kept as dependencies) for changes: {}",
+                context.getName(), kept.size(), methods.size(), unindexed, required.size(), changes);
+        return kept;
+    }
+
+    /**
+     * The change set of this run, parsed once; null when no selection was requested.
+     */
+    private synchronized ChangeSet changes() {
+        if (changes == null) {
+            String diff = ConfigReader.get("impact.diff", "");
+            String list = ConfigReader.get("impact.changed", "");
+            if (diff.isBlank() && list.isBlank()) {
+                return null;
+            }
+            changes = diff.isBlank() ? ChangeSet.ofList(list) : ChangeSet.ofGitDiff(diff.trim());
+            resolve(changes, ImpactIndex.entries());
+        }
+        return changes;
+    }
+
+    /**
+     * Widens method changes the index cannot see to their class, and gives up on classes it does not know.
+     */
+    private static void resolve(ChangeSet changes, Map<String, Set<String>> index) {
+        Map<String, Set<String>> usedMethods = new HashMap<>();
+        for (Set<String> entries : index.values()) {
+            for (String entry : entries) {
+                String[] parts = entry.split("#", 2);
+                usedMethods.computeIfAbsent(parts[0], key -> new HashSet<>()).add(parts.length > 1 ? parts[1] : "");
+            }
+        }
+
+        for (String className : new ArrayList<>(changes.methods().keySet())) {
+            boolean allSeen = changes.methods().get(className).stream()
+                    .allMatch(method -> usedMethods.entrySet().stream()
+                            .anyMatch(used -> used.getValue().contains(method) && isSubclass(used.getKey(), className)));
+            if (!allSeen) {
+                changes.widen(className);
+            }
+        }
+
+        for (String className : changes.classes()) {
+            Class<?> type = load(className);
+            boolean known = usedMethods.keySet().stream().anyMatch(source -> isSubclass(source, className));
+            if (known || type == null) {
+                // Deleted classes cannot be used by the remaining tests
+                continue;
+            }
+            // Test classes select their own methods; anything else no indexed test used, including a page that is new
+            // or whose tests never passed into the index, may still be used by some test, so nothing can be ruled out
+            boolean testSide = className.startsWith("tests.") || isTestSide(type);
+            if (!testSide) {
+                changes.unattributed().add(className);
+            }
+        }
+    }
+
+    private static boolean isImpacted(ITestNGMethod method, Set<String> entries, ChangeSet changes) {
+        for (String changed : changes.classes()) {
+            if (isSubclass(method.getRealClass().getName(), changed) || providesData(method, changed)) {
+                return true;
+            }
+        }
+        for (String entry : entries) {
+            String[] parts = entry.split("#", 2);
+            String name = parts.length > 1 ? parts[1] : "";
+            for (String changed : changes.classes()) {
+                if (isSubclass(parts[0], changed)) {
+                    return true;
+                }
+            }
+            for (Map.Entry<String, Set<String>> changed : changes.methods().entrySet()) {
+                if (changed.getValue().contains(name) && isSubclass(parts[0], changed.getKey())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the methods the selected ones depend on (transitively) to the selection.
+     *
+     * @return ids of the added methods
+     */
+    private static Set<String> addDependencies(List<IMethodInstance> methods, Set<String> selected) {
+        Map<String, ITestNGMethod> byId = new LinkedHashMap<>();
+        methods.forEach(instance -> byId.putIfAbsent(TestIds.of(instance.getMethod()), instance.getMethod()));
+        Set<String> added = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(selected);
+        while (!queue.isEmpty()) {
+            ITestNGMethod method = byId.get(queue.pop());
+            if (method == null) {
+                continue;
+            }
+            for (String dependency : Arrays.asList(method.getMethodsDependedUpon())) {
+                if (byId.containsKey(dependency) && selected.add(dependency)) {
+                    added.add(dependency);
+                    queue.add(dependency);
+                }
+            }
+        }
+        return added;
+    }
+
+    private static boolean providesData(ITestNGMethod method, String className) {
+        IDataProviderMethod provider = method.getDataProviderMethod();
+        return provider != null && provider.getMethod() != null
+                && provider.getMethod().getDeclaringClass().getName().equals(className);
+    }
+
+    private static boolean isTestSide(Class<?> type) {
+        // Test classes and test helpers are loaded from the test output directory
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        return source != null && source.getLocation().getPath().contains("test-classes");
+    }
+
+    private static boolean isSubclass(String className, String superclassName) {
+        if (className.equals(superclassName)) {
+            return true;
+        }
+        Class<?> type = load(className);
+        Class<?> superclass = load(superclassName);
+        return type != null && superclass != null && superclass.isAssignableFrom(type);
+    }
+
+    private static Class<?> load(String className) {
+        return loaded.computeIfAbsent(className, name -> {
+            try {
+                return Class.forName(name, false, ImpactSelector.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,208 @@
+package listeners;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders the tests of every {@code <test>} longest first, by their recorded durations from
+ * {@link DurationHistory}, so long classes such as CheckoutTest start early instead of leaving one thread busy
+ * at the end of a parallel run.
+ * <p>
+ * Lower {@code priority} values still run first; among equal priorities a method is ranked by the longest chain
+ * of dependsOnMethods it starts, and never placed before a method it depends on. With parallel="classes" whole
+ * classes are ordered by their total duration and the methods inside a class by the same rules.
+ * <p>
+ * The predicted makespan (list scheduling over the thread count) is logged next to that of the declared order,
+ * and the actual wall time when the {@code <test>} finishes. Disable with schedule.longest.first=false.
+ */
+public class LongestFirstScheduler implements IMethodInterceptor, ITestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LongestFirstScheduler.class);
+
+    private final Map<String, Double> predictedMakespans = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ConfigReader.getBoolean("schedule.longest.first", true) || methods.size() < 2) {
+            return methods;
+        }
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        XmlSuite.ParallelMode mode = xmlTest.getParallel();
+        boolean byClass = mode == XmlSuite.ParallelMode.CLASSES;
+        boolean parallel = byClass || mode == XmlSuite.ParallelMode.METHODS || mode == XmlSuite.ParallelMode.INSTANCES;
+        int threads = parallel ? Math.max(1, xmlTest.getThreadCount()) : 1;
+
+        List<String> ids = new ArrayList<>();
+        methods.forEach(instance -> ids.add(TestIds.of(instance.getMethod())));
+        Map<String, Double> costs = DurationHistory.estimates(ids);
+
+        List<IMethodInstance> ordered = byClass ? orderClasses(methods, costs) : orderMethods(methods, costs);
+
+        double declared = makespan(units(methods, byClass, costs), threads);
+        double predicted = makespan(units(ordered, byClass, costs), threads);
+        predictedMakespans.put(context.getName(), predicted);
+        logger.info("Scheduled {} methods of '{}' longest first on {} thread(s): predicted makespan {} s (declared order {} s)",
+                ordered.size(), context.getName(), threads, seconds(predicted), seconds(declared));
+        return ordered;
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        Double predicted = predictedMakespans.remove(context.getName());
+        if (predicted != null) {
+            long actual = context.getEndDate().getTime() - context.getStartDate().getTime();
+            logger.info("Makespan of '{}': predicted {} s, actual {} s (wall time incl. setup)",
+                    context.getName(), seconds(predicted), seconds(actual));
+        }
+    }
+
+    /**
+     * Lowest priority first, then longest dependency chain first; a method becomes eligible once every method it
+     * depends on (within this list) is placed. Ties keep the declared order.
+     */
+    static List<IMethodInstance> orderMethods(List<IMethodInstance> methods, Map<String, Double> costs) {
+        Map<String, IMethodInstance> byId = new LinkedHashMap<>();
+        Map<IMethodInstance, Integer> declaredIndex = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            byId.putIfAbsent(TestIds.of(instance.getMethod()), instance);
+            declaredIndex.put(instance, declaredIndex.size());
+        }
+
+        // Dependencies outside this list (other shard, groups) do not constrain the order
+        Map<IMethodInstance, List<IMethodInstance>> dependents = new HashMap<>();
+        Map<IMethodInstance, Integer> pending = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            int count = 0;
+            for (String dependency : new HashSet<>(Arrays.asList(instance.getMethod().getMethodsDependedUpon()))) {
+                IMethodInstance upstream = byId.get(dependency);
+                if (upstream != null && upstream != instance) {
+                    dependents.computeIfAbsent(upstream, key -> new ArrayList<>()).add(instance);
+                    count++;
+                }
+            }
+            pending.put(instance, count);
+        }
+
+        Map<IMethodInstance, Double> chains = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            chain(instance, costs, dependents, chains, new HashSet<>());
+        }
+
+        PriorityQueue<IMethodInstance> ready = new PriorityQueue<>(
+                Comparator.comparingInt((IMethodInstance instance) -> instance.getMethod().getPriority())
+                        .thenComparing(chains::get, Comparator.reverseOrder())
+                        .thenComparing(declaredIndex::get));
+        methods.stream().filter(instance -> pending.get(instance) == 0).forEach(ready::add);
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        while (!ready.isEmpty()) {
+            IMethodInstance next = ready.poll();
+            ordered.add(next);
+            for (IMethodInstance dependent : dependents.getOrDefault(next, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (ordered.size() < methods.size()) {
+            // Cyclic dependencies: TestNG reports those itself, keep the rest in declared order
+            methods.stream().filter(instance -> !ordered.contains(instance)).forEach(ordered::add);
+        }
+        return ordered;
+    }
+
+    /**
+     * Classes by lowest priority of their methods, then longest total duration; methods inside each class
+     * ordered by {@link #orderMethods(List, Map)}.
+     */
+    static List<IMethodInstance> orderClasses(List<IMethodInstance> methods, Map<String, Double> costs) {
+        Map<Class<?>, List<IMethodInstance>> classes = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            classes.computeIfAbsent(instance.getMethod().getRealClass(), key -> new ArrayList<>()).add(instance);
+        }
+        List<Class<?>> order = new ArrayList<>(classes.keySet());
+        Map<Class<?>, Integer> declaredIndex = new HashMap<>();
+        order.forEach(testClass -> declaredIndex.put(testClass, declaredIndex.size()));
+        order.sort(Comparator.comparingInt((Class<?> testClass) -> classes.get(testClass).stream()
+                        .mapToInt(instance -> instance.getMethod().getPriority()).min().orElse(0))
+                .thenComparing(testClass -> total(classes.get(testClass), costs), Comparator.reverseOrder())
+                .thenComparing(declaredIndex::get));
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        order.forEach(testClass -> ordered.addAll(orderMethods(classes.get(testClass), costs)));
+        return ordered;
+    }
+
+    /**
+     * Greedy list scheduling: every unit starts on the thread that frees up first. Ignores dependency waits.
+     */
+    static double makespan(List<Double> units, int threads) {
+        double[] busyUntil = new double[Math.max(1, threads)];
+        for (double unit : units) {
+            int earliest = 0;
+            for (int i = 1; i < busyUntil.length; i++) {
+                if (busyUntil[i] < busyUntil[earliest]) {
+                    earliest = i;
+                }
+            }
+            busyUntil[earliest] += unit;
+        }
+        return Arrays.stream(busyUntil).max().orElse(0);
+    }
+
+    private static double chain(IMethodInstance instance, Map<String, Double> costs,
+                                Map<IMethodInstance, List<IMethodInstance>> dependents,
+                                Map<IMethodInstance, Double> chains, Set<IMethodInstance> visiting) {
+        Double known = chains.get(instance);
+        if (known != null) {
+            return known;
+        }
+        double longestTail = 0;
+        if (visiting.add(instance)) {
+            for (IMethodInstance dependent : dependents.getOrDefault(instance, List.of())) {
+                longestTail = Math.max(longestTail, chain(dependent, costs, dependents, chains, visiting));
+            }
+            visiting.remove(instance);
+        }
+        double length = costs.get(TestIds.of(instance.getMethod())) + longestTail;
+        chains.put(instance, length);
+        return length;
+    }
+
+    private static List<Double> units(List<IMethodInstance> methods, boolean byClass, Map<String, Double> costs) {
+        if (!byClass) {
+            return methods.stream().map(instance -> costs.get(TestIds.of(instance.getMethod()))).toList();
+        }
+        Map<Class<?>, List<IMethodInstance>> classes = new LinkedHashMap<>();
+        methods.forEach(instance -> classes.computeIfAbsent(instance.getMethod().getRealClass(), key -> new ArrayList<>()).add(instance));
+        return classes.values().stream().map(instances -> total(instances, costs)).toList();
+    }
+
+    private static double total(List<IMethodInstance> instances, Map<String, Double> costs) {
+        return instances.stream().mapToDouble(instance -> costs.get(TestIds.of(instance.getMethod()))).sum();
+    }
+
+    private static String seconds(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 1000);
+    }
+}
@@ -0,0 +1,64 @@
+package listeners;
+
+import config.ConfigReader;
+import driver.DriverPool;
+import driver.GridSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Rewrites the parallel settings of every suite before it runs, so any suite file (testng.xml or the
+ * Test Runner suites) can be switched to class- or method-level parallelism from config or the command line:
+ * <pre>
+ *   mvn test -Dparallel.mode=methods -Dparallel.threads=auto
+ * </pre>
+ * With {@code parallel.threads=auto} the thread count is the number of available cores, capped by the
+ * driver pool size when the pool is enabled (a thread without a browser would only wait for a lease).
+ * In remote execution it is the grid capacity instead, since the browsers do not run on this machine.
+ * When parallel.mode is empty the suite runs exactly as declared in its XML.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelExecutionListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = ConfigReader.get("parallel.mode", "");
+        if (mode.isEmpty()) {
+            return;
+        }
+
+        XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(mode);
+        int threadCount = resolveThreadCount();
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(parallelMode);
+            suite.setThreadCount(threadCount);
+            for (XmlTest test : suite.getTests()) {
+                // Per-<test> settings would otherwise override the suite-level ones
+                test.setParallel(parallelMode);
+                test.setThreadCount(threadCount);
+            }
+            logger.info("Suite '{}' set to parallel={} with {} thread(s)", suite.getName(), parallelMode, threadCount);
+        }
+    }
+
+    /**
+     * Thread count from parallel.threads: a number, or "auto" for cores capped by browser pool capacity,
+     * or the grid capacity when executionType=remote.
+     */
+    static int resolveThreadCount() {
+        String threads = ConfigReader.get("parallel.threads", "auto");
+        if (!threads.equalsIgnoreCase("auto")) {
+            return Math.max(1, Integer.parseInt(threads));
+        }
+
+        int browsers = GridSessionFactory.isRemote() ? GridSessionFactory.getCapacity() : Runtime.getRuntime().availableProcessors();
+        return DriverPool.isEnabled() ? Math.max(1, Math.min(browsers, DriverPool.getPoolSize())) : browsers;
+    }
+}
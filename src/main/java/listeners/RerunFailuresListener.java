@@ -0,0 +1,77 @@
+package listeners;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rerun-only-failures mode: with {@code -Drerun.failed=true} every suite is reduced to the methods listed in the
+ * {@link FailureManifest} of the previous run, e.g.
+ * <pre>
+ *   mvn test -Drerun.failed=true
+ * </pre>
+ * Each {@code <test>} keeps its parameters and runs only its own failed and skipped methods (failed
+ * data-provider rows only) plus their dependencies; {@code <test>}s without failures are dropped. The rerun
+ * writes a new manifest, so it can be repeated until it is empty. Without a manifest the suites run unchanged.
+ */
+public class RerunFailuresListener implements IAlterSuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RerunFailuresListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConfigReader.getBoolean("rerun.failed", false)) {
+            return;
+        }
+        FailureManifest.Manifest manifest = FailureManifest.read();
+        if (manifest == null) {
+            logger.warn("rerun.failed=true but there is no failure manifest at {}, running the suites unchanged", FailureManifest.file());
+            return;
+        }
+
+        for (XmlSuite suite : suites) {
+            int methods = 0;
+            for (Iterator<XmlTest> tests = suite.getTests().iterator(); tests.hasNext(); ) {
+                XmlTest test = tests.next();
+                List<XmlClass> classes = classesToRerun(manifest, suite.getName(), test.getName());
+                if (classes.isEmpty()) {
+                    tests.remove();
+                    continue;
+                }
+                test.setXmlPackages(new ArrayList<>());
+                test.setXmlClasses(classes);
+                methods += classes.stream().mapToInt(xmlClass -> xmlClass.getIncludedMethods().size()).sum();
+            }
+            logger.info("Rerunning {} failed, skipped or required methods of suite '{}' in {} <test>(s) from the manifest of {}",
+                    methods, suite.getName(), suite.getTests().size(), manifest.createdAt());
+        }
+    }
+
+    private static List<XmlClass> classesToRerun(FailureManifest.Manifest manifest, String suite, String test) {
+        Map<String, List<XmlInclude>> includes = new LinkedHashMap<>();
+        for (FailureManifest.Entry entry : manifest.tests()) {
+            if (entry.suite().equals(suite) && entry.test().equals(test)) {
+                List<XmlInclude> methods = includes.computeIfAbsent(entry.className(), name -> new ArrayList<>());
+                methods.add(new XmlInclude(entry.method(), entry.rows(), methods.size()));
+            }
+        }
+        List<XmlClass> classes = new ArrayList<>();
+        includes.forEach((className, methods) -> {
+            XmlClass xmlClass = new XmlClass(className);
+            xmlClass.setIncludedMethods(methods);
+            classes.add(xmlClass);
+        });
+        return classes;
+    }
+}
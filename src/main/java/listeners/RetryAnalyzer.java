@@ -0,0 +1,38 @@
+package listeners;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries a failed test up to retry.max.per.test times, but never more than retry.budget retries in the whole
+ * run, so a broken environment cannot multiply the run time. Attached to every test by {@link RetryTransformer}
+ * when retry.enabled=true.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryAnalyzer.class);
+
+    private static final AtomicInteger budget = new AtomicInteger(ConfigReader.getInt("retry.budget", 5));
+
+    private int attempts;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (attempts >= ConfigReader.getInt("retry.max.per.test", 1)) {
+            return false;
+        }
+        if (budget.getAndUpdate(left -> Math.max(0, left - 1)) <= 0) {
+            logger.warn("Retry budget of the run used up, not retrying {}", TestIds.of(result));
+            return false;
+        }
+        attempts++;
+        logger.warn("Retrying {} (attempt {}, {} retries left in this run): {}", TestIds.of(result), attempts + 1, budget.get(),
+                result.getThrowable() == null ? "" : String.valueOf(result.getThrowable().getMessage()).lines().findFirst().orElse(""));
+        return true;
+    }
+}
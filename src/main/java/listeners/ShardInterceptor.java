@@ -0,0 +1,180 @@
+package listeners;
+
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Splits the tests of every {@code <test>} across machines: with {@code -Dshard=2/5} this JVM runs the second of
+ * five shards and drops the rest.
+ * <p>
+ * Work units (test classes, or single methods with shard.by=method) are balanced longest first, each onto the
+ * shard with the least predicted time so far, so the shards finish at roughly the same time. Classes with
+ * dependsOnMethods always stay in one shard.
+ * <p>
+ * Every shard computes the partition independently, so the costs must not depend on the agent. By default a
+ * unit costs its method count. With -Dshard.history=&lt;file&gt; the units are costed by that
+ * {@link DurationHistory} snapshot (units without history at the average of the known ones); every agent must
+ * be given the same file, never its own duration.history.file, which each agent rewrites after its run. Each
+ * shard logs a fingerprint of its costs: shards of one run that show different fingerprints split differently.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardInterceptor.class);
+
+    /**
+     * Shard selected on the command line.
+     *
+     * @param index 1-based index of this shard
+     * @param count total number of shards
+     */
+    record Shard(int index, int count) {
+
+        /**
+         * Parses "i/n", e.g. "2/5"; null when the value is empty (no sharding).
+         */
+        static Shard parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            String[] parts = value.trim().split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("shard must be <index>/<count>, e.g. 2/5, but was: " + value);
+            }
+            int index = Integer.parseInt(parts[0].trim());
+            int count = Integer.parseInt(parts[1].trim());
+            if (count < 1 || index < 1 || index > count) {
+                throw new IllegalArgumentException("shard index must be between 1 and the shard count, but was: " + value);
+            }
+            return new Shard(index, count);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Shard shard = Shard.parse(ConfigReader.get("shard", ""));
+        if (shard == null || shard.count() == 1) {
+            return methods;
+        }
+
+        Map<String, List<IMethodInstance>> units = units(methods);
+        Map<String, Double> costs = costs(units);
+
+        // Longest processing time first onto the least loaded shard; ties by name keep every agent in agreement
+        List<String> order = new ArrayList<>(units.keySet());
+        order.sort(Comparator.comparingDouble((String unit) -> costs.get(unit)).reversed().thenComparing(unit -> unit));
+        double[] loads = new double[shard.count()];
+        Set<String> selected = new HashSet<>();
+        for (String unit : order) {
+            int target = 0;
+            for (int i = 1; i < loads.length; i++) {
+                if (loads[i] < loads[target]) {
+                    target = i;
+                }
+            }
+            loads[target] += costs.get(unit);
+            if (target == shard.index() - 1) {
+                selected.add(unit);
+            }
+        }
+
+        List<IMethodInstance> kept = new ArrayList<>();
+        units.forEach((unit, instances) -> {
+            if (selected.contains(unit)) {
+                kept.addAll(instances);
+            }
+        });
+        // Keep the declared order inside the shard
+        kept.sort(Comparator.comparingInt(methods::indexOf));
+
+        logger.info("Shard {}/{} of '{}': {} of {} methods, predicted {} (shards: {}), partition fingerprint {}",
+                shard.index(), shard.count(), context.getName(), kept.size(), methods.size(),
+                cost(loads[shard.index() - 1]), describe(loads), fingerprint(costs));
+        return kept;
+    }
+
+    private static Map<String, List<IMethodInstance>> units(List<IMethodInstance> methods) {
+        boolean byMethod = ConfigReader.get("shard.by", "class").equalsIgnoreCase("method");
+        Set<String> dependentClasses = new HashSet<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            if (method.getMethodsDependedUpon().length > 0) {
+                dependentClasses.add(method.getRealClass().getName());
+            }
+        }
+        Map<String, List<IMethodInstance>> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String className = method.getRealClass().getName();
+            String unit = byMethod && !dependentClasses.contains(className) ? TestIds.of(method) : className;
+            units.computeIfAbsent(unit, key -> new ArrayList<>()).add(instance);
+        }
+        return units;
+    }
+
+    private static Map<String, Double> costs(Map<String, List<IMethodInstance>> units) {
+        List<String> ids = new ArrayList<>();
+        units.values().forEach(instances -> instances.forEach(instance -> ids.add(TestIds.of(instance.getMethod()))));
+        String snapshot = ConfigReader.get("shard.history", "");
+        Map<String, Double> estimates = new LinkedHashMap<>();
+        if (snapshot.isBlank()) {
+            ids.forEach(id -> estimates.put(id, 1.0));
+        } else {
+            estimates.putAll(DurationHistory.estimates(ids, Paths.get(snapshot)));
+        }
+
+        Map<String, Double> costs = new LinkedHashMap<>();
+        units.forEach((unit, instances) -> costs.put(unit, instances.stream()
+                .mapToDouble(instance -> estimates.get(TestIds.of(instance.getMethod())))
+                .sum()));
+        return costs;
+    }
+
+    /**
+     * Short hash of the units and their costs; equal on every shard exactly when the shards agree on the partition.
+     */
+    static String fingerprint(Map<String, Double> costs) {
+        StringBuilder input = new StringBuilder();
+        new TreeMap<>(costs).forEach((unit, cost) -> input.append(unit).append('=')
+                .append(String.format(Locale.ROOT, "%.3f", cost)).append('\n'));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(input.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String describe(double[] loads) {
+        List<String> parts = new ArrayList<>();
+        for (double load : loads) {
+            parts.add(cost(load));
+        }
+        return String.join(" / ", parts);
+    }
+
+    private static String cost(double value) {
+        return ConfigReader.get("shard.history", "").isBlank()
+                ? String.format(Locale.ROOT, "%.0f methods", value)
+                : String.format(Locale.ROOT, "%.1f s", value / 1000);
+    }
+}
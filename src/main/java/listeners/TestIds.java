@@ -0,0 +1,38 @@
+package listeners;
+
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Stable identifiers for test methods and their data-provider invocations, shared by the listeners
+ * (timeline, duration history, failure manifest, impact index).
+ */
+public final class TestIds {
+
+    private TestIds() {
+    }
+
+    /**
+     * Method-level id, e.g. "tests.shop.CheckoutTest.testCompleteCheckoutWithCreditCard".
+     */
+    public static String of(ITestNGMethod method) {
+        return method.getQualifiedName();
+    }
+
+    /**
+     * Invocation-level id: the method id plus the data-provider parameters, if any,
+     * e.g. "tests.shop.CheckoutTest.testMandatoryBillingFieldsIndividually[First name]".
+     */
+    public static String of(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters == null || parameters.length == 0) {
+            return of(result.getMethod());
+        }
+        return of(result.getMethod()) + Arrays.stream(parameters)
+                .map(String::valueOf)
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
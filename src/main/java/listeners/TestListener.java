@@ -1,7 +1,193 @@
 package listeners;
 
-public class TestListener
-{
-    /// ////amr
+import config.ConfigReader;
+import driver.DriverManager;
+import driver.DriverPool;
+import driver.NetworkBlocker;
+import io.qameta.allure.Allure;
+import logging.TestLogBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import utils.ArtifactWriter;
+import utils.ArtifactWriter.Artifact;
+import utils.ExecutionTimeline;
+import utils.PageMetrics;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suite-wide instrumentation listener.
+ * <p>
+ * Marks test boundaries for the {@link ExecutionTimeline} so driver launches, navigations, page actions and
+ * waits are attributed to the test that caused them (including its {@code @BeforeMethod} setup), attaches each
+ * test's timeline to Allure as CSV, and exports the whole run as JSON and CSV into timeline.dir when the suite
+ * finishes. Test durations are folded into the {@link DurationHistory} used for scheduling, failed and skipped
+ * tests into the {@link FailureManifest} used by {@link RerunFailuresListener}, and the code each test exercised
+ * into the {@link ImpactIndex} used by {@link ImpactSelector}. The driver pool statistics and the launch profile
+ * report are written at the same point, while logging is still up.
+ * <p>
+ * Requests blocked by the {@link NetworkBlocker} during each test are attached as a per-pattern summary, the
+ * {@link PageMetrics} of the pages it loaded as CSV; the run's page timings are reported per page at the end.
+ * <p>
+ * On failure it captures screenshot, page source, cookies and console log from the still open session and hands
+ * them to the background {@link ArtifactWriter} (artifacts.enabled).
+ * <p>
+ * Also keys the log context by test ({@link TestLogBuffer#TEST_KEY}) from the {@code @BeforeMethod} on, so the
+ * test's log events are buffered in memory and only written (and attached) when it fails.
+ */
+public class TestListener implements ITestListener, IInvokedMethodListener, IConfigurationListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestListener.class);
+
+    @Override
+    public void beforeConfiguration(ITestResult configuration, ITestNGMethod testMethod) {
+        // A new @BeforeMethod starts the setup of the next test on this thread; runs before beforeInvocation
+        if (configuration.getMethod().isBeforeMethodConfiguration()) {
+            ExecutionTimeline.detachTest();
+            TestLogBuffer.discard();
+            PageMetrics.discard();
+            // Keyed by the test the setup precedes; onTestStart narrows it to the data-provider invocation
+            MDC.put(TestLogBuffer.TEST_KEY, TestIds.of(testMethod != null ? testMethod : configuration.getMethod()));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        boolean failed = testResult.getStatus() == ITestResult.FAILURE;
+        if (!method.isTestMethod()) {
+            // A failed setup has no test case to attach to, write its buffered log out
+            if (failed) {
+                TestLogBuffer.flush();
+            }
+            return;
+        }
+        // Capture while the driver is still bound and Allure still has the test case open
+        if (failed) {
+            captureFailure(TestIds.of(testResult));
+        } else {
+            TestLogBuffer.discard();
+        }
+        attachNetworkCounts(TestIds.of(testResult));
+        List<PageMetrics.Sample> pages = PageMetrics.drain();
+        if (!pages.isEmpty()) {
+            Allure.addAttachment("Page timings", "text/csv", PageMetrics.toCsv(pages), ".csv");
+        }
+        if (!ExecutionTimeline.isEnabled()) {
+            return;
+        }
+        List<ExecutionTimeline.TimelineEvent> events = ExecutionTimeline.getEvents(TestIds.of(testResult));
+        if (!events.isEmpty()) {
+            Allure.addAttachment("Execution timeline", "text/csv", ExecutionTimeline.toCsv(events), ".csv");
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        MDC.put(TestLogBuffer.TEST_KEY, TestIds.of(result));
+        ExecutionTimeline.beginTest(TestIds.of(result));
+        logger.info("Test started: {}", TestIds.of(result));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordTest(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        FailureManifest.add(result);
+        recordTest(result, false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        FailureManifest.add(result);
+        recordTest(result, false);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        MDC.remove(TestLogBuffer.TEST_KEY);
+        DurationHistory.save();
+        FailureManifest.write();
+        ImpactIndex.save();
+        NetworkBlocker.save();
+        DriverPool.shutdown();
+        PageMetrics.report(Paths.get(ConfigReader.get("page.metrics.file", "test-outputs/page-metrics.csv")));
+        ArtifactWriter.awaitPending(Duration.ofSeconds(ConfigReader.getInt("artifacts.writer.drain.seconds", 60)));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        String name = "timeline-" + suite.getName().replaceAll("[^A-Za-z0-9_-]+", "_") + "-" + timestamp;
+        ExecutionTimeline.export(Paths.get(ConfigReader.get("timeline.dir", "test-outputs/timeline")), name);
+    }
+
+    private void recordTest(ITestResult result, boolean success) {
+        long duration = result.getEndMillis() - result.getStartMillis();
+        ExecutionTimeline.record(ExecutionTimeline.Category.TEST, result.getTestClass().getName(),
+                result.getMethod().getMethodName(), TestIds.of(result), result.getStartMillis(), duration, success);
+        if (result.getStatus() != ITestResult.SKIP) {
+            DurationHistory.record(TestIds.of(result.getMethod()), duration);
+            // Without the timeline there are no events, and an empty record would wipe the method's stored entries
+            if (ExecutionTimeline.isEnabled()) {
+                ImpactIndex.record(TestIds.of(result.getMethod()), ExecutionTimeline.getEvents(TestIds.of(result)), success);
+            }
+        }
+        if (success) {
+            logger.info("Test finished: {} [{}] in {} ms", TestIds.of(result), statusName(result.getStatus()), duration);
+        } else {
+            // Above the buffer's pass-through level, so failures and skips always reach the log
+            logger.warn("Test finished: {} [{}] in {} ms", TestIds.of(result), statusName(result.getStatus()), duration);
+        }
+    }
+
+    private void captureFailure(String testId) {
+        String log = TestLogBuffer.flush();
+        if (!ArtifactWriter.isEnabled()) {
+            return;
+        }
+        List<Artifact> artifacts = new ArrayList<>();
+        if (DriverManager.hasDriver()) {
+            artifacts.addAll(FailureArtifacts.capture(DriverManager.getDriver()));
+        }
+        if (!log.isEmpty()) {
+            artifacts.add(new Artifact("Test log", "text/plain", ".log", log.getBytes(StandardCharsets.UTF_8), true));
+        }
+        if (!artifacts.isEmpty()) {
+            ArtifactWriter.submit(testId, artifacts);
+        }
+    }
+
+    private void attachNetworkCounts(String testId) {
+        NetworkBlocker.Counts counts = DriverManager.hasDriver() ? NetworkBlocker.drain(DriverManager.getDriver()) : null;
+        if (counts == null || counts.isEmpty()) {
+            return;
+        }
+        logger.info("Network for {}: {} requests {}, {} bytes saved, {} bytes transferred", testId,
+                counts.blockedRequests(), counts.dryRun() ? "matched" : "blocked", counts.blockedBytes(),
+                counts.transferredBytes());
+        Allure.addAttachment("Blocked requests", "text/plain", counts.toText(), ".txt");
+    }
+
+    private static String statusName(int status) {
+        return switch (status) {
+            case ITestResult.SUCCESS -> "PASSED";
+            case ITestResult.FAILURE -> "FAILED";
+            case ITestResult.SKIP -> "SKIPPED";
+            default -> String.valueOf(status);
+        };
+    }
 }
@@ -0,0 +1,202 @@
+package logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Log4j2 appender that holds the log events of a running test in memory instead of writing them.
+ * <p>
+ * Events whose context carries a {@link #TEST_KEY} (set by {@link listeners.TestListener} for the test and its
+ * {@code @BeforeMethod} setup) go into a per-thread ring buffer of the last {@code size} events; events at
+ * {@code passThroughLevel} or above are also written right away. All other events (suite setup, pools, writer
+ * threads) are written straight to the referenced appenders. The listener {@link #flush() flushes} the buffer
+ * of a failed test and {@link #discard() discards} it otherwise, so green tests write next to nothing.
+ *
+ * <pre>{@code
+ * <TestLogBuffer name="TestBuffer" size="500" passThroughLevel="warn">
+ *     <PatternLayout pattern="..."/>
+ *     <AppenderRef ref="AsyncOutput"/>
+ * </TestLogBuffer>
+ * }</pre>
+ */
+@Plugin(name = "TestLogBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE)
+public final class TestLogBuffer extends AbstractAppender {
+
+    /**
+     * Context key (slf4j MDC / log4j ThreadContext) holding the id of the test running on the thread.
+     */
+    public static final String TEST_KEY = "test";
+
+    private static final ThreadLocal<Ring> rings = new ThreadLocal<>();
+    private static volatile TestLogBuffer active;
+
+    private final Configuration configuration;
+    private final AppenderRef[] appenderRefs;
+    private final int size;
+    private final Level passThroughLevel;
+    private final boolean enabled;
+    private volatile List<Appender> outputs = List.of();
+
+    private TestLogBuffer(String name, Filter filter, Layout<? extends Serializable> layout, Configuration configuration,
+                          AppenderRef[] appenderRefs, int size, Level passThroughLevel, boolean enabled) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.configuration = configuration;
+        this.appenderRefs = appenderRefs;
+        this.size = Math.max(1, size);
+        this.passThroughLevel = passThroughLevel;
+        this.enabled = enabled;
+    }
+
+    @PluginFactory
+    public static TestLogBuffer createAppender(@PluginAttribute("name") String name,
+                                               @PluginAttribute(value = "size", defaultInt = 500) int size,
+                                               @PluginAttribute(value = "passThroughLevel", defaultString = "WARN") String passThroughLevel,
+                                               @PluginAttribute(value = "enabled", defaultBoolean = true) boolean enabled,
+                                               @PluginElement("Layout") Layout<? extends Serializable> layout,
+                                               @PluginElement("Filter") Filter filter,
+                                               @PluginElement("AppenderRef") AppenderRef[] appenderRefs,
+                                               @PluginConfiguration Configuration configuration) {
+        if (name == null) {
+            LOGGER.error("No name provided for TestLogBuffer");
+            return null;
+        }
+        if (layout == null) {
+            layout = PatternLayout.createDefaultLayout(configuration);
+        }
+        return new TestLogBuffer(name, filter, layout, configuration,
+                appenderRefs == null ? new AppenderRef[0] : appenderRefs,
+                size, Level.toLevel(passThroughLevel, Level.WARN), enabled);
+    }
+
+    @Override
+    public void start() {
+        List<Appender> resolved = new ArrayList<>();
+        for (AppenderRef ref : appenderRefs) {
+            Appender appender = configuration.getAppender(ref.getRef());
+            if (appender == null) {
+                LOGGER.error("TestLogBuffer {}: no appender named {}", getName(), ref.getRef());
+            } else {
+                resolved.add(appender);
+            }
+        }
+        outputs = List.copyOf(resolved);
+        super.start();
+        active = this;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (!enabled || event.getContextData().getValue(TEST_KEY) == null) {
+            write(event);
+            return;
+        }
+        boolean passThrough = event.getLevel().isMoreSpecificThan(passThroughLevel);
+        ring().add(event.toImmutable(), passThrough);
+        if (passThrough) {
+            write(event);
+        }
+    }
+
+    /**
+     * Writes the buffered events of the current thread to the output appenders (those not already passed
+     * through) and clears the buffer.
+     *
+     * @return the buffered events formatted with this appender's layout, e.g. for an Allure attachment;
+     * empty if nothing was buffered
+     */
+    public static String flush() {
+        Ring ring = rings.get();
+        TestLogBuffer buffer = active;
+        if (ring == null || buffer == null || ring.isEmpty()) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        if (ring.dropped > 0) {
+            text.append("... ").append(ring.dropped).append(" earlier events dropped (log.buffer.size)")
+                    .append(System.lineSeparator());
+        }
+        for (Buffered buffered : ring.events) {
+            text.append(new String(buffer.getLayout().toByteArray(buffered.event()), StandardCharsets.UTF_8));
+            if (!buffered.written()) {
+                buffer.write(buffered.event());
+            }
+        }
+        ring.clear();
+        return text.toString();
+    }
+
+    /**
+     * Drops the buffered events of the current thread.
+     */
+    public static void discard() {
+        Ring ring = rings.get();
+        if (ring != null) {
+            ring.clear();
+        }
+    }
+
+    private void write(LogEvent event) {
+        for (Appender output : outputs) {
+            if (output.isStarted()) {
+                output.append(event);
+            }
+        }
+    }
+
+    private Ring ring() {
+        Ring ring = rings.get();
+        if (ring == null) {
+            ring = new Ring();
+            rings.set(ring);
+        }
+        ring.capacity = size;
+        return ring;
+    }
+
+    private record Buffered(LogEvent event, boolean written) {
+    }
+
+    private static final class Ring {
+        private final Deque<Buffered> events = new ArrayDeque<>();
+        private int capacity;
+        private long dropped;
+
+        void add(LogEvent event, boolean written) {
+            if (events.size() >= capacity) {
+                events.pollFirst();
+                dropped++;
+            }
+            events.addLast(new Buffered(event, written));
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty() && dropped == 0;
+        }
+
+        void clear() {
+            events.clear();
+            dropped = 0;
+        }
+    }
+}
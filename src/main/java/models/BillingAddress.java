@@ -0,0 +1,23 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Billing address test data, mapped from the "billingAddress" block of checkoutTestData.json.
+ * Optional fields (company, address2, faxNumber) may be null.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BillingAddress(
+        String firstName,
+        String lastName,
+        String email,
+        String company,
+        String country,
+        String stateProvince,
+        String city,
+        String address1,
+        String address2,
+        String zipPostalCode,
+        String phoneNumber,
+        String faxNumber) {
+}
@@ -0,0 +1,12 @@
+package models;
+
+/**
+ * One product line of the shopping cart or the checkout order summary.
+ * Prices are in the store currency without the currency symbol.
+ */
+public record CartRow(
+        String productName,
+        double unitPrice,
+        int quantity,
+        double subtotal) {
+}
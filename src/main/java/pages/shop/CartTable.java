@@ -0,0 +1,172 @@
+package pages.shop;
+
+import models.CartRow;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.DomSnapshot;
+import utils.WaitEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Product table of the shopping cart page and of the checkout order summary (both render {@code table.cart}).
+ * <p>
+ * The whole table is parsed by one script into {@link CartRow}s and kept until {@link #invalidate()} is called,
+ * so any number of price/quantity/name checks costs one WebDriver call. Pages call invalidate() after actions
+ * that change the cart (remove, quantity change, navigation). Without script support the rows are read cell by
+ * cell instead.
+ */
+public class CartTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartTable.class);
+
+    private static final By ROWS = By.cssSelector("table.cart tbody tr");
+
+    // Returns null while the page or the table is still loading, [] for an empty cart
+    private static final String READ_SCRIPT = """
+            if (document.readyState !== 'complete') return null;
+            var table = document.querySelector('table.cart');
+            if (!table) return document.querySelector('.no-data') ? [] : null;
+            function text(cell, selector) {
+              var el = cell && (cell.querySelector(selector) || cell);
+              return el ? el.textContent.replace(/\\s+/g, ' ').trim() : '';
+            }
+            return Array.prototype.map.call(table.querySelectorAll('tbody tr'), function (row) {
+              var name = row.querySelector('td.product a.product-name') || row.querySelector('td.product a');
+              var quantity = row.querySelector('td.quantity');
+              var input = quantity && quantity.querySelector('input');
+              return {
+                name: name ? name.textContent.replace(/\\s+/g, ' ').trim() : '',
+                unitPrice: text(row.querySelector('td.unit-price'), '.product-unit-price, span'),
+                quantity: input ? input.value : text(quantity, '.product-quantity'),
+                subtotal: text(row.querySelector('td.subtotal'), '.product-subtotal, span')
+              };
+            });
+            """;
+
+    private final WebDriver driver;
+    private List<CartRow> rows;
+
+    public CartTable(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * All product rows, read once and cached until {@link #invalidate()}.
+     */
+    public List<CartRow> getRows() {
+        if (rows == null) {
+            rows = read();
+            logger.debug("Cart table read: {}", rows);
+        }
+        return rows;
+    }
+
+    public Optional<CartRow> find(String productName) {
+        return getRows().stream()
+                .filter(row -> row.productName().equals(productName))
+                .findFirst();
+    }
+
+    /**
+     * Row of the given product.
+     *
+     * @throws IllegalStateException if the product is not in the table
+     */
+    public CartRow get(String productName) {
+        return find(productName)
+                .orElseThrow(() -> new IllegalStateException("Product '" + productName + "' is not in the cart table: " + getRows()));
+    }
+
+    public List<String> getProductNames() {
+        return getRows().stream().map(CartRow::productName).toList();
+    }
+
+    public double getSubtotalSum() {
+        return getRows().stream().mapToDouble(CartRow::subtotal).sum();
+    }
+
+    /**
+     * Drops the cached rows; the next read parses the table again.
+     */
+    public void invalidate() {
+        rows = null;
+    }
+
+    private List<CartRow> read() {
+        if (DomSnapshot.isEnabled() && driver instanceof JavascriptExecutor js) {
+            try {
+                return WaitEngine.current().until("waitForCartTable", new ExpectedCondition<>() {
+                    @Override
+                    public List<CartRow> apply(WebDriver ignored) {
+                        Object result = js.executeScript(READ_SCRIPT);
+                        return result == null ? null : toRows((List<?>) result);
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "cart table to be loaded";
+                    }
+                });
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException | ClassCastException e) {
+                logger.debug("Scripted cart table read failed, reading cells one by one: {}", e.getMessage());
+            }
+        }
+        return readEach();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CartRow> toRows(List<?> result) {
+        List<CartRow> parsed = new ArrayList<>(result.size());
+        for (Object item : result) {
+            Map<String, Object> row = (Map<String, Object>) item;
+            parsed.add(new CartRow(
+                    (String) row.get("name"),
+                    parseAmount((String) row.get("unitPrice")),
+                    parseQuantity((String) row.get("quantity")),
+                    parseAmount((String) row.get("subtotal"))));
+        }
+        return parsed;
+    }
+
+    private List<CartRow> readEach() {
+        List<CartRow> parsed = new ArrayList<>();
+        for (WebElement row : driver.findElements(ROWS)) {
+            List<WebElement> quantityInputs = row.findElements(By.cssSelector("td.quantity input"));
+            String quantity = quantityInputs.isEmpty()
+                    ? row.findElement(By.cssSelector("td.quantity")).getText()
+                    : quantityInputs.get(0).getDomProperty("value");
+            parsed.add(new CartRow(
+                    row.findElement(By.cssSelector("td.product a")).getText().trim(),
+                    parseAmount(row.findElement(By.cssSelector("td.unit-price span")).getText()),
+                    parseQuantity(quantity),
+                    parseAmount(row.findElement(By.cssSelector("td.subtotal span")).getText())));
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a displayed amount such as "$1,350.00"; labels, currency symbols and grouping are ignored.
+     */
+    static double parseAmount(String text) {
+        String number = text == null ? "" : text.replaceAll("[^0-9.\\-]", "");
+        return number.isEmpty() ? 0 : Double.parseDouble(number);
+    }
+
+    static int parseQuantity(String text) {
+        String number = text == null ? "" : text.replaceAll("[^0-9]", "");
+        return number.isEmpty() ? 0 : Integer.parseInt(number);
+    }
+}
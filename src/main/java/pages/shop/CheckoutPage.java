@@ -1,6 +1,8 @@
 package pages.shop;
 
 import base.BasePage;
+import models.BillingAddress;
+import models.CartRow;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,9 +55,9 @@ public class CheckoutPage extends BasePage {
     private final By productsNames = By.cssSelector("a.product-name");
     private final String specificProductName = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='product']//a";
     private final By totalCheckoutPrice = By.cssSelector("td strong");
-    private final String totalProductPrice = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='subtotal']//span";
-    private final String productQuantity = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='unit-price']//label";
     private final By confirmButton = By.cssSelector("button.confirm-order-next-step-button");
+    // Order summary rows parsed in one pass
+    private final CartTable orderSummary = new CartTable(driver);
 
     // success checkout
     private final By successMessage = By.cssSelector("div.order-completed div.title strong");
@@ -74,7 +76,8 @@ public class CheckoutPage extends BasePage {
      * Billing address section
      */
     public CheckoutPage selectToFillNewBillingAddress() {
-        if (isElementDisplayed(savedBillingAddressSelect)) {
+        // Returning customers get the saved-address dropdown, first-time customers the empty form straight away
+        if (awaitEither(savedBillingAddressSelect, firstName).equals(savedBillingAddressSelect)) {
             selectDropdownByVisibleText(savedBillingAddressSelect, "New Address");
             logger.info("CheckoutPage, New billing address selected");
         }
@@ -154,27 +157,35 @@ public class CheckoutPage extends BasePage {
     }
 
     public CheckoutPage clickOnAddressContinueButton() {
-        clickOnElement(addressContinueButton);
+        clickOnElementAndWaitForAjax(addressContinueButton);
         logger.info("CheckoutPage, Address continue button clicked. Next section is Shipping method");
         return this;
     }
 
     public CheckoutPage fillBillingAddressDetails(String firstNameText, String lastNameText, String emailText, String countryText, String stateText, String cityText, String address1Text, String zibCodeText, String phoneNumberText) {
-        enterFirstName(firstNameText)
-                .enterLastName(lastNameText)
-                .enterEmail(emailText)
-                .selectCountry(countryText)
-                .selectState(stateText)
-                .enterCity(cityText)
-                .enterAddress1(address1Text)
-                .enterZipCode(zibCodeText)
-                .enterPhoneNumber(phoneNumberText);
+        // One scripted fill; the state list is reloaded by the country change before the state is picked
+        form()
+                .text(firstName, firstNameText)
+                .text(lastName, lastNameText)
+                .text(email, emailText)
+                .select(country, countryText)
+                .dependentSelect(state, stateText)
+                .text(city, cityText)
+                .text(address1, address1Text)
+                .text(zibCode, zibCodeText)
+                .text(phoneNumber, phoneNumberText)
+                .fill();
 
         logger.info("CheckoutPage, Billing address details filled: {}, {}, {}, {}, {}, {}, {}, {}, {}",
                 firstNameText, lastNameText, emailText, countryText, stateText, cityText, address1Text, zibCodeText, phoneNumberText);
         return this;
     }
 
+    public CheckoutPage fillBillingAddressDetails(BillingAddress address) {
+        return fillBillingAddressDetails(address.firstName(), address.lastName(), address.email(), address.country(),
+                address.stateProvince(), address.city(), address.address1(), address.zipPostalCode(), address.phoneNumber());
+    }
+
     public CheckoutPage leaveFieldBlank(String fieldName) {
         By fieldLocator = switch (fieldName.toLowerCase()) {
             case "first name" -> firstName;
@@ -223,7 +234,7 @@ public class CheckoutPage extends BasePage {
     }
 
     public CheckoutPage clickOnShippingMethodContinueButton() {
-        clickOnElement(shippingMethodContinueButton);
+        clickOnElementAndWaitForAjax(shippingMethodContinueButton);
         logger.info("Shipping method continue button clicked. Next section is Payment method");
         return this;
     }
@@ -245,7 +256,7 @@ public class CheckoutPage extends BasePage {
     }
 
     public CheckoutPage clickOnPaymentMethodContinueButton() {
-        clickOnElement(paymentMethodContinueButton);
+        clickOnElementAndWaitForAjax(paymentMethodContinueButton);
         logger.info("Payment method continue button clicked. Next section is Payment information");
         return this;
     }
@@ -286,7 +297,7 @@ public class CheckoutPage extends BasePage {
     }
 
     public CheckoutPage clickOnPaymentInfoContinueButton() {
-        clickOnElement(paymentInfoContinueButton);
+        clickOnElementAndWaitForAjax(paymentInfoContinueButton);
         logger.info("Payment information continue button clicked. Next section is Confirm order");
         return this;
     }
@@ -309,13 +320,13 @@ public class CheckoutPage extends BasePage {
      */
 
     public void clickOnConfirmButton() {
-        clickOnElement(confirmButton);
+        clickOnElementAndWaitForAjax(confirmButton);
+        orderSummary.invalidate();
         logger.info("CheckoutPage, Order confirmation button clicked.");
     }
 
     public boolean isProductInCheckout(String productName) {
-        By productLocator = By.xpath(String.format(specificProductName, productName));
-        if (isElementDisplayed(productLocator)) {
+        if (track("isProductInCheckout", productName, () -> orderSummary.find(productName).isPresent())) {
             logger.info("Product {} is present in the checkout.", productName);
             return true;
         } else {
@@ -331,7 +342,7 @@ public class CheckoutPage extends BasePage {
 
     public void openProductDetailPage(String productName) {
         By productLocator = By.xpath(String.format(specificProductName, productName));
-        clickOnElement(productLocator);
+        clickOnNavigationElement(productLocator);
     }
 
     public List<String> getAllProductsNames() {
@@ -344,25 +355,28 @@ public class CheckoutPage extends BasePage {
     }
 
     public double getProductSubtotalPrice(String productName) {
-        By totalPriceLocator = By.xpath(String.format(totalProductPrice, productName));
-        String totalPriceText = getText(totalPriceLocator).replaceAll("\\$", "").trim();
-        logger.info("Subtotal price for product {}: {}", productName, totalPriceText);
-        return Double.parseDouble(totalPriceText);
+        double subtotal = track("getProductSubtotalPrice", productName, () -> orderSummary.get(productName).subtotal());
+        logger.info("Subtotal price for product {}: {}", productName, subtotal);
+        return subtotal;
     }
 
     public int getProductQuantity(String productName) {
-        By quantityLocator = By.xpath(String.format(productQuantity, productName));
-        String quantityText = getText(quantityLocator).trim();
-        logger.info("Quantity for product {}: {}", productName, quantityText);
-        return Integer.parseInt(quantityText);
+        int quantity = track("getProductQuantity", productName, () -> orderSummary.get(productName).quantity());
+        logger.info("Quantity for product {}: {}", productName, quantity);
+        return quantity;
+    }
+
+    /**
+     * Returns all product rows of the order summary (name, unit price, quantity, subtotal), read in a single pass.
+     *
+     * @return Order summary rows in display order
+     */
+    public List<CartRow> getOrderSummaryRows() {
+        return track("getOrderSummaryRows", "table.cart", orderSummary::getRows);
     }
 
     public double getSumOfAllProductsPrice() {
-        List<String> productNames = getAllProductsNames();
-        double totalSum = 0.0;
-        for (String productName : productNames) {
-            totalSum += getProductSubtotalPrice(productName);
-        }
+        double totalSum = track("getSumOfAllProductsPrice", "table.cart", orderSummary::getSubtotalSum);
         logger.info("Total sum of all products in checkout: {}", totalSum);
         return totalSum;
     }
@@ -417,7 +431,8 @@ public class CheckoutPage extends BasePage {
      */
 
     public void acceptAlertOfFieldsValidation() {
-        if (isAlertPresent()) {
+        // Valid fields raise no alert, so its absence must not cost the full timeout
+        if (isAlertPresentWithin(probeTimeout())) {
             acceptAlert();
             logger.info("Alert for fields validation accepted.");
         } else {
@@ -2,12 +2,20 @@ package pages.shop;
 
 import base.BasePage;
 import org.openqa.selenium.By;
+import utils.JsonKey;
 import utils.WaitUtils;
 
 import static utils.JsonUtils.getValue;
 
 public class ProductDetailPage extends BasePage {
 
+    // Test data keys for "Build your own computer" attribute options
+    private static final JsonKey PROCESSOR_2_2_GHZ = JsonKey.compile("buildYourOwnComputer.processor[0]");
+    private static final JsonKey PROCESSOR_2_5_GHZ = JsonKey.compile("buildYourOwnComputer.processor[1]");
+    private static final JsonKey RAM_2_GB = JsonKey.compile("buildYourOwnComputer.ram[0]");
+    private static final JsonKey RAM_4_GB = JsonKey.compile("buildYourOwnComputer.ram[1]");
+    private static final JsonKey RAM_8_GB = JsonKey.compile("buildYourOwnComputer.ram[2]");
+
     private final By elementInEmailFriendPage = By.id("PersonalMessage");
 
     //Home Page Locators
@@ -86,9 +94,20 @@ public class ProductDetailPage extends BasePage {
      * Login at first to be able to proceed to checkout page.
      */
     public ProductDetailPage logIn() {
+        return logIn("user.valid@example.com", "Test@1234");
+    }
+
+    /**
+     * Logs in through the header login link with the given credentials.
+     *
+     * @param email    Customer email
+     * @param password Customer password
+     * @return ProductDetailPage instance for method chaining
+     */
+    public ProductDetailPage logIn(String email, String password) {
         clickOnElement(loginIcon);
-        enterText(loginEmail, "user.valid@example.com");
-        enterText(loginPassword, "Test@1234");
+        enterText(loginEmail, email);
+        enterText(loginPassword, password);
         clickOnElement(loginButton);
         return this;
     }
@@ -105,7 +124,7 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage openProductDetailsPageFromHome(String productName) {
         By productLink = By.xpath(String.format(homePageProductsLink, productName));
-        clickOnElement(productLink);
+        clickOnNavigationElement(productLink);
         return this;
     }
 
@@ -117,9 +136,9 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage selectProcessor(String processorSize) {
         if (processorSize.replaceAll(" ", "").trim().equalsIgnoreCase("2.2GHz")) {
-            selectDropdownByVisibleText(processorDropdown, getValue("productsTestData.json", "buildYourOwnComputer.processor[0]"));
+            selectDropdownByVisibleText(processorDropdown, getValue("productsTestData.json", PROCESSOR_2_2_GHZ));
         } else if (processorSize.replaceAll(" ", "").trim().equalsIgnoreCase("2.5GHz")) {
-            selectDropdownByVisibleText(processorDropdown, getValue("productsTestData.json", "buildYourOwnComputer.processor[1]"));
+            selectDropdownByVisibleText(processorDropdown, getValue("productsTestData.json", PROCESSOR_2_5_GHZ));
         } else {
             //TODO : add logs "Wrong size, 2.2 GHz selected by default" ... also add logs to each branch in if.
         }
@@ -134,11 +153,11 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage selectRam(String ramSize) {
         if (ramSize.replaceAll(" ", "").trim().equalsIgnoreCase("2GB")) {
-            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", "buildYourOwnComputer.ram[0]"));
+            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", RAM_2_GB));
         } else if (ramSize.replaceAll(" ", "").trim().equalsIgnoreCase("4GB")) {
-            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", "buildYourOwnComputer.ram[1]"));
+            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", RAM_4_GB));
         } else if (ramSize.replaceAll(" ", "").trim().equalsIgnoreCase("8GB")) {
-            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", "buildYourOwnComputer.ram[2]"));
+            selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", RAM_8_GB));
         } else {
             //TODO : add logs "Wrong size, 2GB selected by default" ... also add logs to each branch in if.
             // selectDropdownByVisibleText(ramDropdown, getValue("productsTestData.json", "buildYourOwnComputer.ram[0]"));
@@ -217,7 +236,7 @@ public class ProductDetailPage extends BasePage {
      * @return
      */
     public ProductDetailPage clickOnAddToCartButtonInPDP() {
-        clickOnElement(addToCartButtonInPDP);
+        clickOnElementAndWaitForAjax(addToCartButtonInPDP);
         return this;
     }
 
@@ -226,7 +245,7 @@ public class ProductDetailPage extends BasePage {
      * This method is used to add the product to the wishlist.
      */
     public void clickOnAddToWishlistButtonInPDP() {
-        clickOnElement(addToWishlistButtonInPDP);
+        clickOnElementAndWaitForAjax(addToWishlistButtonInPDP);
     }
 
     /**
@@ -234,7 +253,7 @@ public class ProductDetailPage extends BasePage {
      * This method is used to add the product to the compare list.
      */
     public void clickOnAddToCompareListButtonInPDP() {
-        clickOnElement(addToCompareListButtonInPDP);
+        clickOnElementAndWaitForAjax(addToCompareListButtonInPDP);
     }
 
     /**
@@ -308,7 +327,7 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage clickOnAddToCartButton(String productName) {
         By addToCartButton = By.xpath(String.format(addToCartBtn, productName));
-        clickOnElement(addToCartButton);
+        clickOnElementAndWaitForAjax(addToCartButton);
         return this;
     }
 
@@ -333,7 +352,7 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage clickOnAddToCompareListButton(String productName) {
         By addToCompareListButton = By.xpath(String.format(addToCompareListBtn, productName));
-        clickOnElement(addToCompareListButton);
+        clickOnElementAndWaitForAjax(addToCompareListButton);
         return this;
     }
 
@@ -346,7 +365,7 @@ public class ProductDetailPage extends BasePage {
      */
     public ProductDetailPage clickOnAddToWishlistButton(String productName) {
         By wishListButton = By.xpath(String.format(addToWishlistBtn, productName));
-        clickOnElement(wishListButton);
+        clickOnElementAndWaitForAjax(wishListButton);
         return this;
     }
 
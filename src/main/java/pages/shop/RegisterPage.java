@@ -34,7 +34,7 @@ public class RegisterPage extends BasePage {
      * @return RegisterPage instance for method chaining
      */
     public RegisterPage navigateToRegisterPage() {
-        clickOnElement(registerButton);
+        clickOnNavigationElement(registerButton);
         return this;
     }
 
@@ -119,6 +119,32 @@ public class RegisterPage extends BasePage {
         return this;
     }
 
+    /**
+     * Fills the whole registration form in one pass, typed or scripted as form.fill.mode says.
+     *
+     * @param gender              (male or female)
+     * @param firstNameText       First name to enter
+     * @param lastNameText        Last name to enter
+     * @param emailText           Email to enter
+     * @param companyText         Company name to enter, null to leave it empty
+     * @param passwordText        Password to enter
+     * @param confirmPasswordText Confirm password to enter
+     * @return RegisterPage instance for method chaining
+     */
+    public RegisterPage fillRegistrationForm(String gender, String firstNameText, String lastNameText, String emailText,
+                                             String companyText, String passwordText, String confirmPasswordText) {
+        form()
+                .check(gender.equalsIgnoreCase("female") ? femaleRadioButton : maleRadioButton)
+                .text(firstName, firstNameText)
+                .text(lastName, lastNameText)
+                .text(email, emailText)
+                .text(company, companyText)
+                .text(password, passwordText)
+                .text(confirmPassword, confirmPasswordText)
+                .fill();
+        return this;
+    }
+
     /**
      * Clicks on the register button to submit the registration form.
      *
@@ -1,10 +1,13 @@
 package pages.shop;
 
 import base.BasePage;
+import models.CartRow;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 import static pages.shop.ProductDetailPage.waitUntilNotificationClosed;
 
 public class ShoppingCartPage extends BasePage {
@@ -14,9 +17,6 @@ public class ShoppingCartPage extends BasePage {
     private final By shoppingCartIcon = By.cssSelector("a.ico-cart");
     private final String specificProductText = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='product']//a";
     private final String removeBtn = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='remove-from-cart']//button";
-    private final String singleProductPrice = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='unit-price']//span";
-    private final String totalProductPrice = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='subtotal']//span";
-    private final String productQuantity = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='quantity']//div[@class='product-quantity']//input";
     private final String quantityUp = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='quantity']//div[@class='product-quantity']//div[contains(@class, 'up')]";
     private final String quantityDown = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='quantity']//div[@class='product-quantity']//div[contains(@class, 'down')]";
     private final String editProductBtn = "//tr[td[@class='product']//a[normalize-space(text())='%s']]//td[@class='product']//div//a";
@@ -32,6 +32,8 @@ public class ShoppingCartPage extends BasePage {
     private final By barNotification = By.cssSelector(".bar-notification p");
     private final By closeBarNotificationBtn = By.cssSelector("div.bar-notification .close");
 
+    // Cart rows parsed in one pass, re-read after actions that change the cart
+    private final CartTable cartTable = new CartTable(driver);
 
     public ShoppingCartPage() {
         super(); // Ensures correct driver from ThreadLocal
@@ -44,7 +46,8 @@ public class ShoppingCartPage extends BasePage {
      * @return ShoppingCartPage instance for method chaining.
      */
     public ShoppingCartPage navigateToShoppingCartPage() {
-        clickOnElement(shoppingCartIcon);
+        clickOnNavigationElement(shoppingCartIcon);
+        cartTable.invalidate();
         return this;
     }
 
@@ -55,8 +58,16 @@ public class ShoppingCartPage extends BasePage {
      * @return true if the product is displayed, false otherwise.
      */
     public boolean isProductInCartPage(String productName) {
-        By productLocator = By.xpath(String.format(specificProductText, productName));
-        return isElementDisplayed(productLocator);
+        return track("isProductInCartPage", productName, () -> cartTable.find(productName).isPresent());
+    }
+
+    /**
+     * Returns all product rows of the cart (name, unit price, quantity, subtotal), read in a single pass.
+     *
+     * @return Cart rows in display order
+     */
+    public List<CartRow> getCartRows() {
+        return track("getCartRows", "table.cart", cartTable::getRows);
     }
 
     /**
@@ -66,7 +77,7 @@ public class ShoppingCartPage extends BasePage {
      */
     public void navigateToProductDetailPage(String productName) {
         By productLocator = By.xpath(String.format(specificProductText, productName));
-        clickOnElement(productLocator);
+        clickOnNavigationElement(productLocator);
     }
 
     /**
@@ -76,20 +87,16 @@ public class ShoppingCartPage extends BasePage {
      */
     public void removeItemFromCart(String productName) {
         By removeButton = By.xpath(String.format(removeBtn, productName));
-        clickOnElement(removeButton);
+        clickOnElementAndWaitForAjax(removeButton);
+        cartTable.invalidate();
     }
 
     public double getProductPriceInCart(String productName) {
-        By priceLocator = By.xpath(String.format(singleProductPrice, productName));
-        String price = getText(priceLocator).replaceAll("\\$", "").trim();
-        return Double.parseDouble(price);
+        return track("getProductPriceInCart", productName, () -> cartTable.get(productName).unitPrice());
     }
 
     public double getProductSubtotalPriceInCart(String productName) {
-        By totalPriceLocator = By.xpath(String.format(totalProductPrice, productName));
-
-        String totalPrice = getText(totalPriceLocator).replaceAll("\\$", "").trim();
-        return Double.parseDouble(totalPrice);
+        return track("getProductSubtotalPriceInCart", productName, () -> cartTable.get(productName).subtotal());
     }
 
     public double getTotalCartPrice() {
@@ -98,19 +105,19 @@ public class ShoppingCartPage extends BasePage {
     }
 
     public int getProductQuantity(String productName) {
-        By quantityLocator = By.xpath(String.format(productQuantity, productName));
-        String quantity = getAttribute(quantityLocator, "value").trim();
-        return Integer.parseInt(quantity);
+        return track("getProductQuantity", productName, () -> cartTable.get(productName).quantity());
     }
 
     public void increaseProductQuantity(String productName) {
         By quantityUpLocator = By.xpath(String.format(quantityUp, productName));
         clickOnElement(quantityUpLocator);
+        cartTable.invalidate();
     }
 
     public void decreaseProductQuantity(String productName) {
         By quantityDownLocator = By.xpath(String.format(quantityDown, productName));
         clickOnElement(quantityDownLocator);
+        cartTable.invalidate();
     }
 
     public void clickOnContinueShoppingButton() {
@@ -2,6 +2,7 @@ package pages.shop;
 
 import base.BasePage;
 import org.openqa.selenium.By;
+import utils.WaitUtils;
 
 import static pages.shop.ProductDetailPage.waitUntilNotificationClosed;
 
@@ -23,6 +24,8 @@ public class WishlistPage extends BasePage {
     private final String addToCartCheckbox = "//td[@class='product']/a[text()='%s']/preceding::td[@class='add-to-cart']//input";
     private final By addToCartButton = By.cssSelector("button.wishlist-add-to-cart-button");
     private final By closeBarNotificationBtn = By.cssSelector("div.bar-notification .close");
+    private final By wishlistTable = By.cssSelector(".wishlist-page .wishlist-content table");
+    private final By emptyWishlist = By.cssSelector(".wishlist-page .no-data");
 
 
     public WishlistPage() {
@@ -36,7 +39,7 @@ public class WishlistPage extends BasePage {
      * @return WishlistPage instance for method chaining.
      */
     public WishlistPage navigateToWishlistPage() {
-        clickOnElement(wishlistIcon);
+        clickOnNavigationElement(wishlistIcon);
         return this;
     }
 
@@ -48,6 +51,8 @@ public class WishlistPage extends BasePage {
     public void removeItemFromWishlistByName(String productName) {
         By removeButton = By.xpath(String.format(removeWish, productName));
         clickOnElement(removeButton);
+        // The wishlist is re-rendered without the row; wait for that so presence checks see the new page
+        WaitUtils.waitForElementToBeInvisible(removeButton);
     }
 
     /**
@@ -67,7 +72,9 @@ public class WishlistPage extends BasePage {
      */
     public boolean isProductInWishlist(String productName) {
         By productLocator = By.xpath(productText + productName + "']");
-        return isElementDisplayed(productLocator);
+        // The page may still be loading: wait for it in full, then a missing row must not cost the full timeout
+        awaitEither(wishlistTable, emptyWishlist);
+        return isDisplayedWithin(productLocator, probeTimeout());
     }
 
     /**
@@ -111,7 +118,7 @@ public class WishlistPage extends BasePage {
      * @return ShoppingCartPage
      */
     public ShoppingCartPage clickOnAddToCartButton() {
-        clickOnElement(addToCartButton);
+        clickOnElementAndWaitForAjax(addToCartButton);
         return new ShoppingCartPage();
     }
 
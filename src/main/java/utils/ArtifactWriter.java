@@ -0,0 +1,198 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Attachment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background writer for failure artifacts (screenshots, page source, cookies, console logs).
+ * <p>
+ * {@link #submit(String, List)} only hashes the captured bytes and links them to the Allure test case that is
+ * open on the calling thread; compression and disk I/O run on a small bounded pool (artifacts.writer.threads,
+ * artifacts.writer.queue). When the queue is full the caller writes its own artifacts, so nothing that was linked
+ * is lost.
+ * <p>
+ * Artifacts are content-addressed by SHA-256: identical screenshots or pages captured by different tests are
+ * stored once, both in artifacts.dir ({@code <hash>.png}, text gzipped as {@code <hash>.html.gz}) and in the Allure
+ * results ({@code <hash>-attachment.png}). Every failure also gets a JSON index in artifacts.dir that maps the
+ * artifact names to their files.
+ */
+public final class ArtifactWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactWriter.class);
+
+    private static final Path directory = Paths.get(ConfigReader.get("artifacts.dir", "test-outputs/artifacts"));
+    private static final Set<String> storedFiles = ConcurrentHashMap.newKeySet();
+    private static final Set<String> allureSources = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = newExecutor();
+
+    private ArtifactWriter() {
+    }
+
+    /**
+     * One captured artifact.
+     *
+     * @param name      display name, e.g. "Screenshot"
+     * @param type      MIME type, e.g. image/png
+     * @param extension file extension including the dot, e.g. .png
+     * @param content   captured bytes
+     * @param compress  gzip the archived copy (text artifacts; PNG is already compressed)
+     */
+    public record Artifact(String name, String type, String extension, byte[] content, boolean compress) {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("artifacts.enabled", true);
+    }
+
+    /**
+     * Links the artifacts to the current Allure test case and queues them for writing. Call on the test thread
+     * while the test case is still open.
+     *
+     * @param testId    id of the failed test, used for the index file
+     * @param artifacts captured artifacts
+     */
+    public static void submit(String testId, List<Artifact> artifacts) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            String hash = sha256(artifact.content());
+            hashes.put(artifact.name(), hash);
+            Attachment attachment = new Attachment()
+                    .setName(artifact.name())
+                    .setType(artifact.type())
+                    .setSource(allureSource(hash, artifact));
+            Allure.getLifecycle().updateTestCase(result -> result.getAttachments().add(attachment));
+        }
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                write(testId, artifacts, hashes);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Waits until every queued artifact is written, e.g. before the suite ends and the report is generated.
+     *
+     * @param timeout maximum time to wait
+     * @return true if the queue drained in time
+     */
+    public static boolean awaitPending(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                logger.warn("{} failure artifact batches still being written after {} s", pending.get(), timeout.toSeconds());
+                return false;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void write(String testId, List<Artifact> artifacts, Map<String, String> hashes) {
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("test", testId);
+        index.put("capturedAt", Instant.now().toString());
+        Map<String, String> files = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(directory);
+            for (Artifact artifact : artifacts) {
+                String hash = hashes.get(artifact.name());
+                String fileName = hash + artifact.extension() + (artifact.compress() ? ".gz" : "");
+                files.put(artifact.name(), fileName);
+                if (storedFiles.add(fileName)) {
+                    store(directory.resolve(fileName), artifact);
+                }
+                String source = allureSource(hash, artifact);
+                if (allureSources.add(source)) {
+                    Allure.getLifecycle().writeAttachment(source, new ByteArrayInputStream(artifact.content()));
+                }
+            }
+            index.put("artifacts", files);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(directory.resolve(safeName(testId) + "-" + System.currentTimeMillis() + ".json").toFile(), index);
+            logger.info("Failure artifacts of {} written to {}", testId, directory);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write failure artifacts of {}: {}", testId, e.getMessage());
+        }
+    }
+
+    private static void store(Path file, Artifact artifact) throws IOException {
+        if (Files.exists(file)) {
+            return; // same content stored by an earlier run
+        }
+        Path temp = Files.createTempFile(directory, "artifact", ".tmp");
+        try (OutputStream out = artifact.compress()
+                ? new GZIPOutputStream(Files.newOutputStream(temp))
+                : Files.newOutputStream(temp)) {
+            out.write(artifact.content());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String allureSource(String hash, Artifact artifact) {
+        return hash + "-attachment" + artifact.extension();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String safeName(String testId) {
+        return testId.replaceAll("[^A-Za-z0-9_.-]+", "_");
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        int threads = Math.max(1, ConfigReader.getInt("artifacts.writer.threads", 2));
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, ConfigReader.getInt("artifacts.writer.queue", 32))),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
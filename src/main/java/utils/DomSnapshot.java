@@ -0,0 +1,227 @@
+package utils;
+
+import config.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk DOM reads: text, value, visibility, state and selected attributes of every element matching a locator,
+ * collected by one executeScript call instead of one WebDriver round-trip per element and property.
+ * <p>
+ * css, xpath, id, name, class name and tag name locators are resolved inside the script; other locators are
+ * found with one findElements call and handed to the script. When scripting is unavailable
+ * (dom.snapshot.enabled=false, a driver without JavaScript support, or a script error) the same snapshot is
+ * built from per-element WebElement reads.
+ */
+public final class DomSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomSnapshot.class);
+
+    private static final Set<String> SCRIPT_LOCATORS = Set.of("css selector", "xpath", "id", "name", "class name", "tag name");
+
+    /**
+     * Script function {@code locateAll(using, value)} returning the elements matching a locator given as its
+     * remote parameters (see {@link #scriptLocator(By)}), or {@code value} itself when it is already an element list.
+     * Prepend it to scripts that locate elements in the page.
+     */
+    public static final String LOCATE_FUNCTION = """
+            function locateAll(using, value) {
+              switch (using) {
+                case 'css selector': return Array.from(document.querySelectorAll(value));
+                case 'id': return Array.from(document.querySelectorAll('#' + CSS.escape(value)));
+                case 'name': return Array.from(document.querySelectorAll('[name="' + CSS.escape(value) + '"]'));
+                case 'class name': return Array.from(document.querySelectorAll('.' + CSS.escape(value)));
+                case 'tag name': return Array.from(document.getElementsByTagName(value));
+                case 'xpath':
+                  var found = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                  var els = [];
+                  for (var i = 0; i < found.snapshotLength; i++) els.push(found.snapshotItem(i));
+                  return els;
+                default: return Array.from(value);
+              }
+            }
+            """;
+
+    /**
+     * Script function {@code visible(el)}: the element takes up layout space and is not visibility-hidden; options
+     * follow their select. Shared by scripts that decide visibility inside the page.
+     */
+    public static final String VISIBLE_FUNCTION = """
+            function visible(el) {
+              if (el.tagName === 'OPTION') { var select = el.closest('select'); return !!select && visible(select); }
+              if (el.getClientRects().length === 0) return false;
+              var style = getComputedStyle(el);
+              return style.visibility !== 'hidden' && style.visibility !== 'collapse';
+            }
+            """;
+
+    private static final String SNAPSHOT_SCRIPT = LOCATE_FUNCTION + VISIBLE_FUNCTION + """
+            var mode = arguments[0], target = arguments[1], names = arguments[2] || [];
+            var els = mode === 'options' ? target.options : locateAll(mode, target);
+            return Array.prototype.map.call(els, function (el) {
+              var shown = visible(el);
+              var text = el.tagName === 'OPTION' ? el.text : (shown ? el.innerText : '');
+              var attributes = {};
+              names.forEach(function (name) { attributes[name] = el.getAttribute(name); });
+              return {
+                tag: el.tagName.toLowerCase(),
+                text: (text || '').replace(/\\u00a0/g, ' ').replace(/[ \\t]+/g, ' ').replace(/ *\\n */g, '\\n').trim(),
+                value: 'value' in el && el.value != null ? String(el.value) : null,
+                displayed: shown,
+                enabled: !el.disabled,
+                selected: !!(el.selected || el.checked),
+                attributes: attributes
+              };
+            });
+            """;
+
+    private DomSnapshot() {
+    }
+
+    /**
+     * State of one element at the time of the snapshot.
+     *
+     * @param tag        lower-case tag name
+     * @param text       visible text, empty for hidden elements (option text for options)
+     * @param value      value property of form controls, null for other elements
+     * @param attributes the requested attributes, null values for missing ones
+     */
+    public record Element(String tag, String text, String value, boolean displayed, boolean enabled, boolean selected,
+                          Map<String, String> attributes) {
+
+        public String attribute(String name) {
+            return attributes.get(name);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("dom.snapshot.enabled", true);
+    }
+
+    /**
+     * Snapshot of every element currently matching the locator, in document order. Does not wait.
+     *
+     * @param driver     driver of the current thread
+     * @param locator    locator of the elements
+     * @param attributes attribute names to read from every element
+     * @return one entry per matching element, empty if none match
+     */
+    public static List<Element> of(WebDriver driver, By locator, String... attributes) {
+        if (isEnabled() && driver instanceof JavascriptExecutor js) {
+            try {
+                Object result;
+                List<Object> target = scriptLocator(locator);
+                if (target != null) {
+                    result = js.executeScript(SNAPSHOT_SCRIPT, target.get(0), target.get(1), Arrays.asList(attributes));
+                } else {
+                    List<WebElement> elements = driver.findElements(locator);
+                    if (elements.isEmpty()) return List.of();
+                    result = js.executeScript(SNAPSHOT_SCRIPT, "elements", elements, Arrays.asList(attributes));
+                }
+                return toElements(result);
+            } catch (WebDriverException | ClassCastException e) {
+                logger.debug("Scripted snapshot of {} failed, reading elements one by one: {}", locator, e.getMessage());
+            }
+        }
+        return readEach(driver.findElements(locator), attributes);
+    }
+
+    /**
+     * Snapshot of all options of a select element.
+     *
+     * @param driver     driver of the current thread
+     * @param select     the select element
+     * @param attributes attribute names to read from every option
+     */
+    public static List<Element> options(WebDriver driver, WebElement select, String... attributes) {
+        if (isEnabled() && driver instanceof JavascriptExecutor js) {
+            try {
+                return toElements(js.executeScript(SNAPSHOT_SCRIPT, "options", select, Arrays.asList(attributes)));
+            } catch (WebDriverException | ClassCastException e) {
+                logger.debug("Scripted snapshot of select options failed, reading options one by one: {}", e.getMessage());
+            }
+        }
+        return readEach(new Select(select).getOptions(), attributes);
+    }
+
+    /**
+     * The locator as {@code [using, value]} arguments for {@link #LOCATE_FUNCTION}, or null when the locator type
+     * cannot be resolved inside a script (link text, chained and custom locators).
+     */
+    public static List<Object> scriptLocator(By locator) {
+        if (locator instanceof By.Remotable remotable) {
+            By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+            if (SCRIPT_LOCATORS.contains(parameters.using())) {
+                return List.of(parameters.using(), parameters.value());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Texts of the given snapshot entries.
+     */
+    public static List<String> texts(List<Element> elements) {
+        List<String> texts = new ArrayList<>(elements.size());
+        for (Element element : elements) {
+            texts.add(element.text());
+        }
+        return texts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Element> toElements(Object result) {
+        if (!(result instanceof List<?> rows)) {
+            throw new ClassCastException("Unexpected snapshot result: " + result);
+        }
+        List<Element> elements = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Map<String, Object> map = (Map<String, Object>) row;
+            Map<String, String> attributes = new LinkedHashMap<>();
+            ((Map<String, Object>) map.getOrDefault("attributes", Map.of()))
+                    .forEach((name, value) -> attributes.put(name, value == null ? null : String.valueOf(value)));
+            elements.add(new Element(
+                    (String) map.get("tag"),
+                    (String) map.get("text"),
+                    (String) map.get("value"),
+                    Boolean.TRUE.equals(map.get("displayed")),
+                    Boolean.TRUE.equals(map.get("enabled")),
+                    Boolean.TRUE.equals(map.get("selected")),
+                    Collections.unmodifiableMap(attributes)));
+        }
+        return elements;
+    }
+
+    private static List<Element> readEach(List<WebElement> webElements, String... attributes) {
+        List<Element> elements = new ArrayList<>(webElements.size());
+        for (WebElement webElement : webElements) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                values.put(attribute, webElement.getDomAttribute(attribute));
+            }
+            elements.add(new Element(
+                    webElement.getTagName().toLowerCase(),
+                    webElement.getText(),
+                    webElement.getDomProperty("value"),
+                    webElement.isDisplayed(),
+                    webElement.isEnabled(),
+                    webElement.isSelected(),
+                    Collections.unmodifiableMap(values)));
+        }
+        return elements;
+    }
+}
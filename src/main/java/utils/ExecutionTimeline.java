@@ -0,0 +1,233 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Run-wide timing recorder for driver launches, navigations, page actions, waits and HTTP calls.
+ * <p>
+ * Events are attributed to the test running on the current thread. Events recorded before the listener
+ * announces a test (e.g. in {@code @BeforeMethod}) are held per thread and handed to the next test that starts
+ * on that thread. {@link listeners.TestListener} drives the test boundaries and exports the run as JSON and CSV.
+ * Recording is a no-op when timeline.enabled=false.
+ */
+public final class ExecutionTimeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionTimeline.class);
+
+    private static final boolean enabled = ConfigReader.getBoolean("timeline.enabled", true);
+
+    private static final Collection<TimelineEvent> events = new ConcurrentLinkedQueue<>();
+    private static final Map<String, List<TimelineEvent>> eventsByTest = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<List<TimelineEvent>> pending = ThreadLocal.withInitial(ArrayList::new);
+
+    private ExecutionTimeline() {
+    }
+
+    public enum Category {
+        TEST, DRIVER, NAVIGATION, ACTION, WAIT, HTTP
+    }
+
+    /**
+     * One timed operation.
+     *
+     * @param test     test id the event belongs to, null if recorded outside any test
+     * @param source   class that performed the operation, e.g. pages.shop.CheckoutPage
+     * @param name     operation, e.g. clickOnElement
+     * @param detail   operation target, e.g. the locator
+     * @param start    start time in epoch millis
+     * @param duration duration in millis
+     */
+    public record TimelineEvent(String test, String thread, Category category, String source, String name,
+                                String detail, long start, double duration, boolean success) {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a test on the current thread; events recorded on this thread since the last test
+     * (its before-method setup) are attributed to it.
+     */
+    public static void beginTest(String testId) {
+        if (!enabled) return;
+        currentTest.set(testId);
+        List<TimelineEvent> setupEvents = pending.get();
+        List<TimelineEvent> testEvents = eventsFor(testId);
+        for (TimelineEvent event : setupEvents) {
+            TimelineEvent attributed = new TimelineEvent(testId, event.thread(), event.category(), event.source(),
+                    event.name(), event.detail(), event.start(), event.duration(), event.success());
+            testEvents.add(attributed);
+            events.add(attributed);
+        }
+        setupEvents.clear();
+    }
+
+    /**
+     * Detaches the current thread from its test, so the next events are held for the following test. Events still
+     * held from an earlier setup that never reached its test (a failed {@code @BeforeMethod}) are dropped.
+     */
+    public static void detachTest() {
+        currentTest.remove();
+        pending.get().clear();
+    }
+
+    public static <T> T time(Category category, String source, String name, String detail, Supplier<T> operation) {
+        if (!enabled) return operation.get();
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = operation.get();
+            success = true;
+            return result;
+        } finally {
+            record(category, source, name, detail, start, (System.nanoTime() - startNanos) / 1_000_000.0, success);
+        }
+    }
+
+    public static void time(Category category, String source, String name, String detail, Runnable operation) {
+        time(category, source, name, detail, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records an operation that was timed by the caller.
+     */
+    public static void record(Category category, String source, String name, String detail,
+                              long start, double durationMillis, boolean success) {
+        if (!enabled) return;
+        String test = currentTest.get();
+        TimelineEvent event = new TimelineEvent(test, Thread.currentThread().getName(), category, source, name,
+                detail, start, durationMillis, success);
+        if (test == null) {
+            pending.get().add(event);
+        } else {
+            eventsFor(test).add(event);
+            events.add(event);
+        }
+    }
+
+    public static List<TimelineEvent> getEvents(String testId) {
+        List<TimelineEvent> testEvents = eventsByTest.get(testId);
+        if (testEvents == null) return List.of();
+        synchronized (testEvents) {
+            return List.copyOf(testEvents);
+        }
+    }
+
+    public static List<TimelineEvent> getEvents() {
+        return events.stream()
+                .sorted(Comparator.comparingLong(TimelineEvent::start))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Serializes events as CSV, one row per event.
+     */
+    public static String toCsv(List<TimelineEvent> timeline) {
+        StringBuilder csv = new StringBuilder("test,thread,category,source,name,detail,start,durationMs,success\n");
+        for (TimelineEvent event : timeline) {
+            csv.append(csvField(event.test())).append(',')
+                    .append(csvField(event.thread())).append(',')
+                    .append(event.category()).append(',')
+                    .append(csvField(event.source())).append(',')
+                    .append(csvField(event.name())).append(',')
+                    .append(csvField(event.detail())).append(',')
+                    .append(event.start()).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", event.duration())).append(',')
+                    .append(event.success()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Aggregates events by category and operation: count, total, p50, p95 and max duration in millis,
+     * ordered by total time descending.
+     */
+    public static List<Map<String, Object>> summarize(List<TimelineEvent> timeline) {
+        Map<String, List<TimelineEvent>> groups = timeline.stream()
+                .collect(Collectors.groupingBy(e -> e.category() + " " + e.name(), LinkedHashMap::new, Collectors.toList()));
+
+        List<Map<String, Object>> summary = new ArrayList<>();
+        groups.forEach((key, group) -> {
+            double[] durations = group.stream().mapToDouble(TimelineEvent::duration).sorted().toArray();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("category", group.get(0).category());
+            row.put("name", group.get(0).name());
+            row.put("count", durations.length);
+            row.put("totalMs", round(Arrays.stream(durations).sum()));
+            row.put("p50Ms", round(percentile(durations, 50)));
+            row.put("p95Ms", round(percentile(durations, 95)));
+            row.put("maxMs", round(durations[durations.length - 1]));
+            summary.add(row);
+        });
+        summary.sort(Comparator.comparingDouble((Map<String, Object> row) -> (double) row.get("totalMs")).reversed());
+        return summary;
+    }
+
+    /**
+     * Writes the whole run as {@code <name>.json} (summary + events) and {@code <name>.csv} into the directory.
+     */
+    public static void export(Path directory, String name) {
+        if (!enabled) return;
+        List<TimelineEvent> timeline = getEvents();
+        try {
+            Files.createDirectories(directory);
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put("summary", summarize(timeline));
+            document.put("events", timeline);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(directory.resolve(name + ".json").toFile(), document);
+            Files.writeString(directory.resolve(name + ".csv"), toCsv(timeline));
+            logger.info("Execution timeline with {} events written to {}", timeline.size(), directory.resolve(name + ".json"));
+        } catch (IOException e) {
+            logger.warn("Failed to write execution timeline to {}: {}", directory, e.getMessage());
+        }
+    }
+
+    static double percentile(double[] sorted, int percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static List<TimelineEvent> eventsFor(String testId) {
+        return eventsByTest.computeIfAbsent(testId, id -> Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        return value.contains(",") || value.contains("\"") || value.contains("\n")
+                ? "\"" + value.replace("\"", "\"\"") + "\""
+                : value;
+    }
+}
@@ -0,0 +1,105 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-compiled key path into a JSON test data document, e.g. {@code JsonKey.compile("billingAddress.firstName")}
+ * or {@code JsonKey.compile("buildYourOwnComputer.ram[2]")}.
+ * <p>
+ * The path is tokenized once at compile time, so a JsonKey can be held in a static field by page objects and
+ * tests and resolved any number of times without string splitting or regex matching.
+ * Instances are immutable and thread-safe.
+ */
+public final class JsonKey {
+
+    // Matches one path segment: "users[0]" or "address"
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("([a-zA-Z0-9_]+)(\\[(\\d+)\\])?");
+
+    private final String path;
+    private final Segment[] segments;
+
+    private JsonKey(String path, Segment[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles a dot-separated key path with optional array indexes.
+     *
+     * @param path Key path, e.g. "users[0].address.city"
+     * @return Compiled key
+     * @throws IllegalArgumentException if a segment is not a plain name with an optional [index]
+     */
+    public static JsonKey compile(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Key path must not be empty");
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        for (String key : path.split("\\.")) {
+            Matcher matcher = SEGMENT_PATTERN.matcher(key);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid path segment '" + key + "' in key path '" + path + "'");
+            }
+            String indexStr = matcher.group(3);
+            segments.add(new Segment(matcher.group(1), indexStr == null ? -1 : Integer.parseInt(indexStr)));
+        }
+        return new JsonKey(path, segments.toArray(new Segment[0]));
+    }
+
+    /**
+     * Returns a key for a field below this one, e.g. {@code billingAddress.child("city")}.
+     *
+     * @param childPath Relative key path
+     * @return Compiled key for the combined path
+     */
+    public JsonKey child(String childPath) {
+        return compile(path + "." + childPath);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Walks the compiled segments from the given root.
+     *
+     * @param root Root node of a parsed document
+     * @return Resolved node, or null if any segment is missing or an index is out of bounds
+     */
+    public JsonNode resolve(JsonNode root) {
+        JsonNode node = root;
+        for (Segment segment : segments) {
+            if (node == null || !node.isObject()) return null;
+            node = node.get(segment.property());
+
+            if (segment.index() >= 0 && node != null && node.isArray()) {
+                node = segment.index() < node.size() ? node.get(segment.index()) : null;
+            }
+        }
+        return node;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof JsonKey key && key.path.equals(path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private record Segment(String property, int index) {
+    }
+}
@@ -2,21 +2,20 @@ package utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -25,6 +24,11 @@ import java.util.regex.Pattern;
  * - Dot notation access for nested keys (e.g., "user.address.city")
  * - Indexed array access (e.g., "users[0].name")
  * - Flattening complex JSON structures into List<Map<String, String>> for DataProviders
+ * <p>
+ * Each file is parsed once with Jackson and kept in a thread-safe in-memory cache; a cached document is
+ * re-parsed only when the file's last-modified time changes. Key paths are compiled once into {@link JsonKey}s,
+ * so repeated lookups are map reads instead of disk I/O. Callers can hold their own JsonKey constants and use
+ * the JsonKey overloads, or resolve many keys against one document with {@link #getValues(String, JsonKey...)}.
  */
 public class JsonUtils {
 
@@ -33,6 +37,15 @@ public class JsonUtils {
     // Base path to your test data directory
     private static final String TEST_DATA_BASE_PATH = "src/test/resources/testdata/";
 
+    // Single shared parser; ObjectMapper is thread-safe once configured
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Parsed documents keyed by file path, invalidated by last-modified time
+    private static final Map<Path, CachedDocument> documents = new ConcurrentHashMap<>();
+
+    // Compiled key paths keyed by the raw path string, for callers that still pass plain strings
+    private static final Map<String, JsonKey> compiledKeys = new ConcurrentHashMap<>();
+
     /**
      * Reads a single value from a JSON file using dot notation and index support.
      *
@@ -43,25 +56,47 @@ public class JsonUtils {
 
     public static String getValue(String fileName, String keyPath) {
         try {
-            String filePath = getJsonFilePath(fileName);
-            logger.info("Reading JSON file from: {}", filePath);
+            return getValue(fileName, compiledKey(keyPath));
+        } catch (Exception e) {
+            logger.error("Error reading key '{}' from JSON '{}'", keyPath, fileName, e);
+            return null;
+        }
+    }
 
-            JsonElement root = JsonParser.parseReader(new FileReader(filePath));
-            JsonElement resolved = resolvePath(root, keyPath);
+    /**
+     * Reads a single value from a JSON file using a pre-compiled key.
+     *
+     * @param fileName JSON file name in /testdata/ (with or without .json extension)
+     * @param key      Compiled key path
+     * @return String value if found; otherwise null
+     */
+    public static String getValue(String fileName, JsonKey key) {
+        try {
+            return asValue(key.resolve(readDocument(fileName)), key);
+        } catch (Exception e) {
+            logger.error("Error reading key '{}' from JSON '{}'", key, fileName, e);
+            return null;
+        }
+    }
 
-            if (resolved != null && !resolved.isJsonNull()) {
-                String value = resolved.getAsString();
-                logger.debug("Resolved key '{}' to value '{}'", keyPath, value);
-                return value;
-            } else {
-                logger.warn("Key '{}' not found or is null", keyPath);
-                return null;
+    /**
+     * Resolves several keys against one parsed document in a single pass.
+     *
+     * @param fileName JSON file name in /testdata/ (with or without .json extension)
+     * @param keys     Compiled key paths
+     * @return Map of key path to value, in the order of the given keys; missing keys map to null
+     */
+    public static Map<String, String> getValues(String fileName, JsonKey... keys) {
+        Map<String, String> values = new LinkedHashMap<>();
+        try {
+            JsonNode root = readDocument(fileName);
+            for (JsonKey key : keys) {
+                values.put(key.path(), asValue(key.resolve(root), key));
             }
-
         } catch (Exception e) {
-            logger.error("Error reading key '{}' from JSON '{}'", keyPath, fileName, e);
-            return null;
+            logger.error("Error reading keys from JSON '{}'", fileName, e);
         }
+        return values;
     }
 
     /**
@@ -75,24 +110,39 @@ public class JsonUtils {
      */
     public static <T> T readJson(String fileName, String keyPath, Class<T> targetType) {
         try {
-            String filePath = getJsonFilePath(fileName);
-            logger.info("Reading JSON file for POJO mapping from: {}", filePath);
+            return readJson(fileName, keyPath == null || keyPath.isEmpty() ? null : compiledKey(keyPath), targetType);
+        } catch (Exception e) {
+            logger.error("Error mapping JSON '{}' to POJO for key '{}': {}", fileName, keyPath, e.getMessage(), e);
+            return null;
+        }
+    }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode rootNode = mapper.readTree(new File(filePath));
+    /**
+     * Maps the node at a pre-compiled key to a POJO or record, e.g. the whole "billingAddress" block.
+     *
+     * @param fileName   The JSON file name in /testdata/
+     * @param key        Compiled key of the desired object, or null for root
+     * @param targetType The target POJO class
+     * @param <T>        The type parameter for the POJO
+     * @return Mapped POJO instance, or null if the key is missing
+     */
+    public static <T> T readJson(String fileName, JsonKey key, Class<T> targetType) {
+        try {
+            JsonNode rootNode = readDocument(fileName);
 
-            // If a keyPath is provided, navigate to that node
-            if (keyPath != null && !keyPath.isEmpty()) {
-                String[] keys = keyPath.split("\\.");
-                for (String key : keys) {
-                    rootNode = rootNode.path(key);
+            // If a key is provided, navigate to that node
+            if (key != null) {
+                rootNode = key.resolve(rootNode);
+                if (rootNode == null) {
+                    logger.warn("Key '{}' not found in JSON '{}'", key, fileName);
+                    return null;
                 }
             }
 
             return mapper.treeToValue(rootNode, targetType);
 
         } catch (Exception e) {
-            logger.error("Error mapping JSON '{}' to POJO for key '{}': {}", fileName, keyPath, e.getMessage(), e);
+            logger.error("Error mapping JSON '{}' to POJO for key '{}': {}", fileName, key, e.getMessage(), e);
             return null;
         }
     }
@@ -112,14 +162,9 @@ public class JsonUtils {
      */
     public static List<Map<String, String>> getJsonAsListOfMap(String fileName) {
         List<Map<String, String>> records = new ArrayList<>();
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
-            String filePath = getJsonFilePath(fileName);
-            File file = new File(filePath);
-            logger.info("Reading JSON as list of maps from: {}", filePath);
-
-            JsonNode rootNode = mapper.readTree(file);
+            JsonNode rootNode = readDocument(fileName);
 
             // Case 1: Top-level JSON is an array of records
             if (rootNode.isArray()) {
@@ -147,46 +192,60 @@ public class JsonUtils {
 
 
     /**
-     * Resolves a dot-separated key path with optional index notation into a JsonElement.
-     * Example key path: "users[0].address.city"
+     * Returns the parsed document for a test data file, parsing it only on first use or after the file changed.
      *
-     * @param element Root JSON element
-     * @param path    Dot-separated path to resolve
-     * @return Resolved JsonElement or null
+     * @param fileName JSON file name in /testdata/ (with or without .json extension)
+     * @return Root JsonNode of the file (shared, must not be modified)
      */
-    private static JsonElement resolvePath(JsonElement element, String path) {
-        String[] keys = path.split("\\.");
-
-        for (String key : keys) {
-            // Match dot or array pattern: "users[0]" or "address"
-            Matcher matcher = Pattern.compile("([a-zA-Z0-9_]+)(\\[(\\d+)\\])?").matcher(key);
-            if (!matcher.matches()) {
-                logger.warn("Invalid path segment: '{}'", key);
-                return null;
-            }
+    private static JsonNode readDocument(String fileName) throws IOException {
+        Path path = Paths.get(getJsonFilePath(fileName)).toAbsolutePath().normalize();
+        FileTime lastModified = Files.getLastModifiedTime(path);
 
-            String property = matcher.group(1);
-            String indexStr = matcher.group(3);
-
-            // Get the object property
-            assert element != null;
-            if (!element.isJsonObject()) return null;
-            element = element.getAsJsonObject().get(property);
-
-            // Get array index if present
-            if (indexStr != null && element != null && element.isJsonArray()) {
-                int index = Integer.parseInt(indexStr);
-                JsonArray array = element.getAsJsonArray();
-                if (index >= 0 && index < array.size()) {
-                    element = array.get(index);
-                } else {
-                    logger.warn("Index {} out of bounds for array '{}'", index, property);
-                    return null;
+        CachedDocument cached = documents.get(path);
+        if (cached != null && cached.lastModified().equals(lastModified)) {
+            return cached.root();
+        }
+
+        try {
+            return documents.compute(path, (key, current) -> {
+                if (current != null && current.lastModified().equals(lastModified)) {
+                    return current;
                 }
-            }
+                try {
+                    logger.info("Parsing JSON file: {}", key);
+                    return new CachedDocument(lastModified, mapper.readTree(key.toFile()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).root();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+    }
+
+    /**
+     * Returns the compiled key for a raw key path, compiling it on first use.
+     *
+     * @param keyPath Dot-separated path, e.g. "users[0].address.city"
+     * @return Cached JsonKey
+     */
+    private static JsonKey compiledKey(String keyPath) {
+        return compiledKeys.computeIfAbsent(keyPath, JsonKey::compile);
+    }
 
-        return element;
+    /**
+     * Converts a resolved node to its string value.
+     *
+     * @return Text of a non-null value node; otherwise null
+     */
+    private static String asValue(JsonNode resolved, JsonKey key) {
+        if (resolved != null && resolved.isValueNode() && !resolved.isNull()) {
+            String value = resolved.asText();
+            logger.debug("Resolved key '{}' to value '{}'", key, value);
+            return value;
+        }
+        logger.warn("Key '{}' not found, is null or is not a single value", key);
+        return null;
     }
 
     /**
@@ -230,6 +289,7 @@ public class JsonUtils {
         }
         return Paths.get(TEST_DATA_BASE_PATH, fileName).toString();
     }
-}
-
 
+    private record CachedDocument(FileTime lastModified, JsonNode root) {
+    }
+}
@@ -0,0 +1,154 @@
+package utils;
+
+import config.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Event-driven wait conditions for {@link WaitUtils} (wait.backend=observer).
+ * <p>
+ * Instead of asking the driver for the element on every poll, each check runs one executeAsyncScript call that
+ * evaluates the condition in the page and, while it is false, re-evaluates it on DOM mutations (at most once per
+ * animation frame). The call returns the moment the condition holds, or when its slice of the wait
+ * (wait.observer.slice.ms, never beyond the wait's own timeout) runs out, after which the wait polls again.
+ * <p>
+ * The polling condition is returned unchanged when wait.backend=poll or the locator type cannot be resolved inside
+ * a script (see {@link DomSnapshot#scriptLocator(By)}), and used for a single check whenever the script fails, e.g.
+ * when a navigation unloads the document mid-wait.
+ */
+public final class ObserverWait {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObserverWait.class);
+
+    private static final String OBSERVE_SCRIPT = DomSnapshot.LOCATE_FUNCTION + DomSnapshot.VISIBLE_FUNCTION + """
+            var using = arguments[0], target = arguments[1], state = arguments[2], text = arguments[3];
+            var budget = arguments[4], done = arguments[arguments.length - 1];
+            function check() {
+              var el = locateAll(using, target)[0];
+              switch (state) {
+                case 'visible': return el && visible(el) ? el : null;
+                case 'clickable': return el && visible(el) && !el.disabled ? el : null;
+                case 'hidden': return !el || !visible(el) ? true : null;
+                case 'text': return el && visible(el) && (el.innerText || '').indexOf(text) >= 0 ? true : null;
+                default: return null;
+              }
+            }
+            var initial = check();
+            if (initial !== null) { done(initial); return; }
+            var settled = false, scheduled = false, observer, timer;
+            function finish(result) {
+              if (settled) return;
+              settled = true;
+              observer.disconnect();
+              clearTimeout(timer);
+              done(result);
+            }
+            observer = new MutationObserver(function () {
+              if (scheduled || settled) return;
+              scheduled = true;
+              requestAnimationFrame(function () {
+                scheduled = false;
+                var result = check();
+                if (result !== null) finish(result);
+              });
+            });
+            observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});
+            // Last check on expiry covers changes no mutation reports, e.g. a stylesheet swap or paused frames
+            timer = setTimeout(function () { finish(check()); }, budget);
+            """;
+
+    private ObserverWait() {
+    }
+
+    public static boolean isEnabled() {
+        return "observer".equalsIgnoreCase(ConfigReader.get("wait.backend", "poll"));
+    }
+
+    /**
+     * Condition equivalent to {@link ExpectedConditions#visibilityOfElementLocated(By)}.
+     *
+     * @param locator By locator of the element
+     * @param timeout timeout of the wait the condition is used in; no script call outlasts it
+     */
+    public static ExpectedCondition<WebElement> visibilityOf(By locator, Duration timeout) {
+        return observe(locator, "visible", null, timeout,
+                ExpectedConditions.visibilityOfElementLocated(locator), WebElement.class::cast);
+    }
+
+    /**
+     * Condition equivalent to {@link WaitUtils#visibleAndClickable(By)}.
+     */
+    public static ExpectedCondition<WebElement> clickabilityOf(By locator, Duration timeout) {
+        return observe(locator, "clickable", null, timeout,
+                WaitUtils.visibleAndClickable(locator), WebElement.class::cast);
+    }
+
+    /**
+     * Condition equivalent to {@link ExpectedConditions#invisibilityOfElementLocated(By)}.
+     */
+    public static ExpectedCondition<Boolean> invisibilityOf(By locator, Duration timeout) {
+        return observe(locator, "hidden", null, timeout,
+                ExpectedConditions.invisibilityOfElementLocated(locator), result -> Boolean.TRUE);
+    }
+
+    /**
+     * Condition equivalent to {@link ExpectedConditions#textToBePresentInElementLocated(By, String)}.
+     */
+    public static ExpectedCondition<Boolean> textIn(By locator, String text, Duration timeout) {
+        return observe(locator, "text", text, timeout,
+                ExpectedConditions.textToBePresentInElementLocated(locator, text), result -> Boolean.TRUE);
+    }
+
+    private static <T> ExpectedCondition<T> observe(By locator, String state, String text, Duration timeout,
+                                                    ExpectedCondition<T> polling, Function<Object, T> result) {
+        if (!isEnabled()) {
+            return polling;
+        }
+        List<Object> target = DomSnapshot.scriptLocator(locator);
+        if (target == null) {
+            return polling;
+        }
+        long maxSliceMillis = ConfigReader.getInt("wait.observer.slice.ms", 5000);
+        return new ExpectedCondition<>() {
+            private long deadline;
+            private boolean started;
+
+            @Override
+            public T apply(WebDriver driver) {
+                if (!(driver instanceof JavascriptExecutor js)) {
+                    return polling.apply(driver);
+                }
+                long now = System.nanoTime();
+                if (!started) {
+                    deadline = now + timeout.toNanos();
+                    started = true;
+                }
+                long slice = Math.max(0, Math.min(maxSliceMillis, (deadline - now) / 1_000_000));
+                try {
+                    Object value = js.executeAsyncScript(OBSERVE_SCRIPT, target.get(0), target.get(1), state, text, slice);
+                    return value == null ? null : result.apply(value);
+                } catch (WebDriverException | ClassCastException e) {
+                    logger.debug("Observing {} failed, polling once instead: {}", locator,
+                            String.valueOf(e.getMessage()).lines().findFirst().orElse(""));
+                    return polling.apply(driver);
+                }
+            }
+
+            @Override
+            public String toString() {
+                return polling.toString();
+            }
+        };
+    }
+}
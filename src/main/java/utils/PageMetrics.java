@@ -0,0 +1,314 @@
+package utils;
+
+import config.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Front-end timings of every storefront page the tests land on: Navigation Timing (time to first byte,
+ * DOMContentLoaded, load), first contentful paint and largest contentful paint, read from the browser's own
+ * performance entries.
+ * <p>
+ * Page objects click their way to another page through {@link #markDeparture(WebDriver)}, the click and
+ * {@link #captureNavigation(WebDriver)}, and call {@link #capture(WebDriver)} after a redirection check that saw the
+ * new page; the test base captures after opening the shop. Clicks that stay on the page cost nothing. Every
+ * document that was read, or that a navigation click left, is tagged. A capture waits, up to explicit.wait, for an
+ * untagged document that has fully loaded, so with an eager page load strategy the sample still belongs to the
+ * navigation that caused it, and a document is read only once. Pages are keyed by URL path with numeric segments
+ * folded ("/orderdetails/{n}"), and remember the page object method that led to them. AJAX updates within a page
+ * (one page checkout steps) are not navigations and are not measured.
+ * <p>
+ * Samples of the current thread are drained per test by {@link listeners.TestListener} and attached as CSV; the
+ * run's samples are written to page.metrics.file with a p50/p95 table per page when the suite finishes.
+ * Off by default (page.metrics.enabled=false): a captured navigation costs one or two extra script calls.
+ */
+public final class PageMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageMetrics.class);
+
+    // Tags the document a navigation click is about to leave
+    private static final String MARK_SCRIPT = "window.__pageMetricsSeen = true;";
+
+    // Waits until the current document is untagged and has loaded, then tags and reads it. Without arguments[0]
+    // (leaving) a tagged document is not waited on. LCP entries are only exposed to a (buffered) PerformanceObserver
+    private static final String CAPTURE_SCRIPT = """
+            var leaving = arguments[0], deadline = Date.now() + arguments[1];
+            var done = arguments[arguments.length - 1];
+            var read = function () {
+              window.__pageMetricsSeen = true;
+              var nav = performance.getEntriesByType('navigation')[0];
+              var fcp = performance.getEntriesByName('first-contentful-paint')[0];
+              var lcp = null;
+              var finish = function () {
+                done({
+                  url: location.href,
+                  ttfb: nav ? nav.responseStart : null,
+                  fcp: fcp ? fcp.startTime : null,
+                  lcp: lcp,
+                  domContentLoaded: nav ? nav.domContentLoadedEventEnd : null,
+                  load: nav ? nav.loadEventEnd : null,
+                  transferSize: nav ? nav.transferSize : 0
+                });
+              };
+              var types = window.PerformanceObserver ? PerformanceObserver.supportedEntryTypes || [] : [];
+              if (types.indexOf('largest-contentful-paint') < 0) {
+                finish();
+                return;
+              }
+              var observer = new PerformanceObserver(function () {});
+              observer.observe({type: 'largest-contentful-paint', buffered: true});
+              setTimeout(function () {
+                observer.takeRecords().forEach(function (entry) { lcp = entry.startTime; });
+                observer.disconnect();
+                finish();
+              }, 0);
+            };
+            var poll = function () {
+              var seen = window.__pageMetricsSeen;
+              if (!seen && document.readyState === 'complete') {
+                read();
+              } else if ((!seen || leaving) && Date.now() < deadline) {
+                setTimeout(poll, 50);
+              } else {
+                done(null);
+              }
+            };
+            poll();
+            """;
+
+    private static final boolean enabled = ConfigReader.getBoolean("page.metrics.enabled", false);
+
+    private static final Collection<Sample> runSamples = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<List<Sample>> pending = ThreadLocal.withInitial(ArrayList::new);
+
+    private PageMetrics() {
+    }
+
+    /**
+     * Timings of one page load in millis from navigation start, null where the browser reports none (LCP in
+     * Firefox, paints of pages that rendered nothing).
+     *
+     * @param page          URL path with numeric segments folded, e.g. "/cart"
+     * @param via           page object method that led to the page, e.g. "ShoppingCartPage.navigateToShoppingCartPage"
+     * @param transferBytes bytes of the document itself, 0 when served from cache
+     */
+    public record Sample(String page, String via, String url, Double ttfb, Double fcp, Double lcp,
+                         Double domContentLoaded, Double load, long transferBytes) {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Tags the current document before a click that leaves it, so {@link #captureNavigation(WebDriver)} waits for
+     * the next one.
+     */
+    public static void markDeparture(WebDriver driver) {
+        if (!enabled || !(driver instanceof JavascriptExecutor js)) {
+            return;
+        }
+        try {
+            js.executeScript(MARK_SCRIPT);
+        } catch (RuntimeException e) {
+            logger.debug("Page not tagged before navigation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the timings of the page a click is opening, waiting for the browser to leave the document tagged by
+     * {@link #markDeparture(WebDriver)} first. Credits the calling page object method.
+     */
+    public static void captureNavigation(WebDriver driver) {
+        if (enabled) {
+            capture(driver, caller(), true);
+        }
+    }
+
+    /**
+     * Reads the timings of the page a navigation has already opened, crediting the calling page object method.
+     */
+    public static void capture(WebDriver driver) {
+        if (enabled) {
+            capture(driver, caller(), false);
+        }
+    }
+
+    /**
+     * Reads the timings of the page a navigation has already opened, once it has finished loading.
+     *
+     * @param via what led to the page, e.g. "BaseTest.openBaseUrl"
+     */
+    public static void capture(WebDriver driver, String via) {
+        capture(driver, via, false);
+    }
+
+    /**
+     * Reads the current document's timings once it is untagged and has finished loading. Nothing is recorded if
+     * that does not happen within explicit.wait, or if the document is tagged and the caller is not leaving it.
+     */
+    private static void capture(WebDriver driver, String via, boolean leaving) {
+        if (!enabled || !(driver instanceof JavascriptExecutor js)) {
+            return;
+        }
+        long waitMillis = ConfigReader.getInt("explicit.wait", 10) * 1000L;
+        Map<?, ?> timings;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                timings = (Map<?, ?>) js.executeAsyncScript(CAPTURE_SCRIPT, leaving, waitMillis);
+                break;
+            } catch (RuntimeException e) {
+                // The old page unloaded while the script waited on it: wait again on the new one. An open alert
+                // fails both times.
+                if (attempt == 2) {
+                    logger.debug("Page timings not captured: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+        if (timings == null) {
+            return;
+        }
+        String url = String.valueOf(timings.get("url"));
+        Sample sample = new Sample(page(url), via, url, millis(timings.get("ttfb")), millis(timings.get("fcp")),
+                millis(timings.get("lcp")), millis(timings.get("domContentLoaded")), millis(timings.get("load")),
+                timings.get("transferSize") instanceof Number number ? number.longValue() : 0);
+        pending.get().add(sample);
+        runSamples.add(sample);
+        logger.debug("Page timings of {}: {}", sample.page(), sample);
+    }
+
+    /**
+     * Samples captured on the current thread since the last drain or discard.
+     */
+    public static List<Sample> drain() {
+        List<Sample> samples = List.copyOf(pending.get());
+        pending.get().clear();
+        return samples;
+    }
+
+    /**
+     * Drops the current thread's samples, e.g. left over from a setup that failed.
+     */
+    public static void discard() {
+        pending.get().clear();
+    }
+
+    /**
+     * Serializes samples as CSV, one row per page load.
+     */
+    public static String toCsv(List<Sample> samples) {
+        StringBuilder csv = new StringBuilder("page,via,ttfbMs,fcpMs,lcpMs,domContentLoadedMs,loadMs,transferBytes,url\n");
+        for (Sample sample : samples) {
+            csv.append(sample.page()).append(',')
+                    .append(sample.via()).append(',')
+                    .append(format(sample.ttfb())).append(',')
+                    .append(format(sample.fcp())).append(',')
+                    .append(format(sample.lcp())).append(',')
+                    .append(format(sample.domContentLoaded())).append(',')
+                    .append(format(sample.load())).append(',')
+                    .append(sample.transferBytes()).append(',')
+                    .append(sample.url().contains(",") ? "\"" + sample.url().replace("\"", "\"\"") + "\"" : sample.url())
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Page count, p50 and p95 of TTFB, FCP, LCP and load per page, ordered by page.
+     */
+    public static String summarize(Collection<Sample> samples) {
+        Map<String, List<Sample>> byPage = samples.stream()
+                .collect(Collectors.groupingBy(Sample::page, TreeMap::new, Collectors.toList()));
+        int width = Math.max(24, byPage.keySet().stream().mapToInt(String::length).max().orElse(0));
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-" + width + "s %5s %9s %9s %9s %9s %9s %9s %9s %9s",
+                "page", "loads", "ttfb p50", "ttfb p95", "fcp p50", "fcp p95", "lcp p50", "lcp p95", "load p50", "load p95"));
+        byPage.forEach((page, group) -> {
+            table.append(System.lineSeparator()).append(String.format(Locale.ROOT, "%-" + width + "s %5d", page, group.size()));
+            for (Function<Sample, Double> metric : List.<Function<Sample, Double>>of(Sample::ttfb, Sample::fcp, Sample::lcp, Sample::load)) {
+                double[] values = group.stream().map(metric).filter(Objects::nonNull).mapToDouble(Double::doubleValue).sorted().toArray();
+                table.append(values.length == 0
+                        ? String.format(Locale.ROOT, " %9s %9s", "-", "-")
+                        : String.format(Locale.ROOT, " %9.0f %9.0f",
+                        ExecutionTimeline.percentile(values, 50), ExecutionTimeline.percentile(values, 95)));
+            }
+        });
+        return table.toString();
+    }
+
+    /**
+     * Writes the run's samples to the file as CSV and logs the per-page table. The samples are cleared afterwards,
+     * so calling it once per suite is safe.
+     */
+    public static synchronized void report(Path file) {
+        if (runSamples.isEmpty()) {
+            return;
+        }
+        List<Sample> samples = new ArrayList<>(runSamples);
+        runSamples.clear();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, toCsv(samples));
+            logger.info("Page timings of {} page loads ({}):{}{}", samples.size(), file, System.lineSeparator(),
+                    summarize(samples));
+        } catch (IOException e) {
+            logger.warn("Failed to write page timings to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * URL path with numeric segments folded, "/" for the home page.
+     */
+    static String page(String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = url;
+        }
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return path.replaceAll("/\\d+(?=/|$)", "/{n}");
+    }
+
+    /**
+     * The outermost page object method on the stack, e.g. "CheckoutPage.clickOnConfirmButton".
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                        .filter(frame -> frame.getClassName().startsWith("pages."))
+                        .reduce((inner, outer) -> outer)
+                        .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                                + "." + frame.getMethodName()))
+                .orElse("test");
+    }
+
+    private static Double millis(Object value) {
+        return value instanceof Number number ? Math.round(number.doubleValue() * 10) / 10.0 : null;
+    }
+
+    private static String format(Double value) {
+        return value == null ? "" : String.format(Locale.ROOT, "%.1f", value);
+    }
+}
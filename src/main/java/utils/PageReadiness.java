@@ -0,0 +1,137 @@
+package utils;
+
+import config.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.UnhandledAlertException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.Map;
+
+/**
+ * Readiness checks for nopCommerce pages whose buttons (add to cart/wishlist, one page checkout steps) work
+ * over AJAX.
+ * <p>
+ * A page is idle when the document has finished loading, jQuery has no active requests, no fetch/XHR request
+ * is in flight and no busy indicator (OPC "please wait", AJAX loading overlay) is shown. fetch and XHR are
+ * counted by hooks that {@link #installHooks(WebDriver)} puts on the page before an AJAX click. When the first
+ * check has to install them itself, requests started before that are invisible to the hooks and the check relies
+ * on jQuery and the busy indicators, which then have to stay clear for twice the quiet window. Idle must hold
+ * for ajax.quiet.ms, so a request started by the response of the previous one is not missed. An open alert
+ * counts as idle: it is what the page shows when a step fails, and it must stay open for the test to read it.
+ * <p>
+ * Config keys: ajax.quiet.ms, ajax.busy.selectors (CSS selectors of busy indicators).
+ */
+public final class PageReadiness {
+
+    // Counts fetch/XHR requests in flight; returns true when it installed the hooks, false if they were there
+    private static final String HOOK_SCRIPT = """
+            var w = window;
+            if (w.__readiness) {
+              return false;
+            }
+            var state = w.__readiness = {pending: 0};
+            if (w.fetch) {
+              var originalFetch = w.fetch;
+              w.fetch = function () {
+                state.pending++;
+                return originalFetch.apply(this, arguments).finally(function () { state.pending--; });
+              };
+            }
+            var originalSend = XMLHttpRequest.prototype.send;
+            XMLHttpRequest.prototype.send = function () {
+              state.pending++;
+              this.addEventListener('loadend', function () { state.pending--; }, {once: true});
+              return originalSend.apply(this, arguments);
+            };
+            return true;
+            """;
+
+    private static final String STATE_SCRIPT = "var installedNow = (function () {" + HOOK_SCRIPT + "})();" + """
+            var busy = Array.prototype.some.call(document.querySelectorAll(arguments[0]), function (el) {
+              return el.getClientRects().length > 0 && getComputedStyle(el).visibility !== 'hidden';
+            });
+            return {
+              documentReady: document.readyState === 'complete',
+              jQueryActive: window.jQuery ? window.jQuery.active || 0 : 0,
+              pending: window.__readiness.pending,
+              hooksInstalledLate: installedNow,
+              busy: busy
+            };
+            """;
+
+    private PageReadiness() {
+    }
+
+    /**
+     * Installs the fetch/XHR hooks on the current page if they are not there yet, so requests started by the next
+     * click are counted. An open alert leaves the page as it is.
+     */
+    public static void installHooks(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            return;
+        }
+        try {
+            js.executeScript(HOOK_SCRIPT);
+        } catch (UnhandledAlertException e) {
+            // the readiness check treats an open alert as idle anyway
+        }
+    }
+
+    /**
+     * Condition that is true once the page has been idle for ajax.quiet.ms. Create a new condition per wait.
+     */
+    public static ExpectedCondition<Boolean> ajaxIdle() {
+        String busySelectors = ConfigReader.get("ajax.busy.selectors", ".please-wait, .ajax-loading-block-window");
+        long quietMillis = ConfigReader.getInt("ajax.quiet.ms", 150);
+
+        return new ExpectedCondition<>() {
+            private long idleSince = -1;
+            private long quietFor = quietMillis;
+            private Object lastState;
+
+            @Override
+            public Boolean apply(WebDriver driver) {
+                if (!(driver instanceof JavascriptExecutor js)) {
+                    return true;
+                }
+                Map<?, ?> state;
+                try {
+                    state = (Map<?, ?>) js.executeScript(STATE_SCRIPT, busySelectors);
+                } catch (UnhandledAlertException e) {
+                    return true;
+                }
+                lastState = state;
+                if (Boolean.TRUE.equals(state.get("hooksInstalledLate"))) {
+                    quietFor = 2 * quietMillis;
+                }
+
+                boolean idle = Boolean.TRUE.equals(state.get("documentReady"))
+                        && count(state.get("jQueryActive")) == 0
+                        && count(state.get("pending")) <= 0
+                        && !Boolean.TRUE.equals(state.get("busy"));
+                if (!idle) {
+                    idleSince = -1;
+                    return false;
+                }
+                long now = System.currentTimeMillis();
+                if (idleSince < 0) {
+                    idleSince = now;
+                }
+                return now - idleSince >= quietFor;
+            }
+
+            @Override
+            public String toString() {
+                return "page to be idle (no pending AJAX, no busy indicator), last state: " + lastState;
+            }
+        };
+    }
+
+    /**
+     * A counter from the state script; missing or non-numeric values (e.g. a jQuery without "active") count as 0.
+     */
+    private static int count(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package utils;
+
+import config.ConfigReader;
+import driver.DriverManager;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread wait engine behind {@link WaitUtils}.
+ * <p>
+ * Keeps one {@link WebDriverWait} per timeout for the thread's current driver instead of allocating a new
+ * wait on every call, and polls with an adaptive backoff: the first checks run quickly and the interval
+ * grows up to a ceiling while the condition stays false.
+ * <p>
+ * Config keys: explicit.wait (seconds), wait.polling.ms, wait.polling.max.ms, wait.polling.backoff.
+ */
+public final class WaitEngine {
+
+    private static final ThreadLocal<WaitEngine> engines = new ThreadLocal<>();
+
+    private final WebDriver driver;
+    private final Map<Duration, WebDriverWait> waits = new HashMap<>();
+    private final AdaptiveSleeper sleeper;
+
+    private WaitEngine(WebDriver driver) {
+        this.driver = driver;
+        this.sleeper = new AdaptiveSleeper(
+                Duration.ofMillis(ConfigReader.getInt("wait.polling.ms", 100)),
+                Duration.ofMillis(ConfigReader.getInt("wait.polling.max.ms", 500)),
+                Double.parseDouble(ConfigReader.get("wait.polling.backoff", "1.5")));
+    }
+
+    /**
+     * Returns the engine bound to the current thread, rebuilding it when the thread's driver has changed.
+     */
+    public static WaitEngine current() {
+        WebDriver driver = DriverManager.getDriver();
+        WaitEngine engine = engines.get();
+        if (engine == null || engine.driver != driver) {
+            engine = new WaitEngine(driver);
+            engines.set(engine);
+        }
+        return engine;
+    }
+
+    /**
+     * Default timeout for explicit waits, read from explicit.wait (seconds).
+     */
+    public static Duration defaultTimeout() {
+        return Duration.ofSeconds(ConfigReader.getInt("explicit.wait", 10));
+    }
+
+    public <T> T until(ExpectedCondition<T> condition) {
+        return until(condition, defaultTimeout());
+    }
+
+    public <T> T until(ExpectedCondition<T> condition, Duration timeout) {
+        return until("until", condition, timeout);
+    }
+
+    public <T> T until(String name, ExpectedCondition<T> condition) {
+        return until(name, condition, defaultTimeout());
+    }
+
+    /**
+     * Waits until the condition returns a non-null, non-false value or the timeout expires.
+     * The wait is recorded in the {@link ExecutionTimeline} under the given name.
+     *
+     * @param name      operation name for the timeline, e.g. the calling WaitUtils method
+     * @param condition condition to wait for
+     * @param timeout   maximum time to wait
+     * @throws org.openqa.selenium.TimeoutException if the condition is not met in time
+     */
+    public <T> T until(String name, ExpectedCondition<T> condition, Duration timeout) {
+        WebDriverWait wait = waits.computeIfAbsent(timeout, this::newWait);
+        return ExecutionTimeline.time(ExecutionTimeline.Category.WAIT, WaitUtils.class.getName(), name,
+                String.valueOf(condition), () -> {
+                    sleeper.reset();
+                    return wait.until(condition);
+                });
+    }
+
+    private WebDriverWait newWait(Duration timeout) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, sleeper.initial, Clock.systemDefaultZone(), sleeper);
+        wait.ignoring(StaleElementReferenceException.class);
+        return wait;
+    }
+
+    /**
+     * Sleeper that ignores the fixed interval handed in by FluentWait and instead grows its own interval
+     * geometrically from {@code initial} up to {@code max}. Reset before every wait.
+     */
+    static final class AdaptiveSleeper implements Sleeper {
+        private final Duration initial;
+        private final Duration max;
+        private final double backoff;
+        private Duration next;
+
+        AdaptiveSleeper(Duration initial, Duration max, double backoff) {
+            this.initial = initial;
+            this.max = max.compareTo(initial) < 0 ? initial : max;
+            this.backoff = Math.max(1.0, backoff);
+            this.next = initial;
+        }
+
+        void reset() {
+            next = initial;
+        }
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            Duration current = next;
+            long grown = (long) (current.toMillis() * backoff);
+            next = grown >= max.toMillis() ? max : Duration.ofMillis(grown);
+            Thread.sleep(current.toMillis());
+        }
+    }
+}
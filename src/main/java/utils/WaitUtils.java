@@ -1,76 +1,110 @@
 package utils;
 
-import driver.DriverManager;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Explicit wait helpers. All waits run on the current thread's {@link WaitEngine}, so wait objects are reused
+ * per timeout and the default timeout comes from explicit.wait in config.properties.
+ * Element visibility, clickability, invisibility and text waits resolve on DOM changes instead of polling when
+ * wait.backend=observer (see {@link ObserverWait}).
+ */
 public class WaitUtils {
 
+    private static final Logger logger = LoggerFactory.getLogger(WaitUtils.class);
+
     // Wait until element is visible on the page.
     public static WebElement waitForElementToBeVisible(By locator) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return WaitEngine.current().until("waitForElementToBeVisible", ObserverWait.visibilityOf(locator, WaitEngine.defaultTimeout()));
     }
 
     public static List<WebElement> waitForAllElementsToBeVisible(By locator) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+        return WaitEngine.current().until("waitForAllElementsToBeVisible", ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+    }
+
+    /**
+     * Waits until at least one element matches and all matches are visible, reading every match in one bulk
+     * snapshot per poll instead of one visibility check per element.
+     *
+     * @param locator    By locator of the elements
+     * @param attributes Attribute names to include in the snapshot
+     * @return Snapshot of the visible elements
+     */
+    public static List<DomSnapshot.Element> waitForAllElementsSnapshot(By locator, String... attributes) {
+        return WaitEngine.current().until("waitForAllElementsSnapshot", new ExpectedCondition<>() {
+            @Override
+            public List<DomSnapshot.Element> apply(WebDriver driver) {
+                List<DomSnapshot.Element> elements = DomSnapshot.of(driver, locator, attributes);
+                return !elements.isEmpty() && elements.stream().allMatch(DomSnapshot.Element::displayed) ? elements : null;
+            }
+
+            @Override
+            public String toString() {
+                return "visibility of all elements located by " + locator;
+            }
+        });
     }
 
     public static Boolean waitForElementToBeInvisible(By locator) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return WaitEngine.current().until("waitForElementToBeInvisible", ObserverWait.invisibilityOf(locator, WaitEngine.defaultTimeout()));
     }
 
 
-    // Wait until element is clickable.
+    // Wait until element is visible and clickable, checked together in a single polling loop.
     public static WebElement waitForElementToBeClickable(By locator) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.elementToBeClickable(driver.findElement(locator)));
+        return WaitEngine.current().until("waitForElementToBeClickable", ObserverWait.clickabilityOf(locator, WaitEngine.defaultTimeout()));
     }
 
     // Wait until the alert is present.
     public static Alert waitForAlertPresent() {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.alertIsPresent());
+        return WaitEngine.current().until("waitForAlertPresent", ExpectedConditions.alertIsPresent());
+    }
+
+    public static Alert waitForAlertPresent(Duration timeout) {
+        return WaitEngine.current().until("waitForAlertPresent", ExpectedConditions.alertIsPresent(), timeout);
     }
 
     // Wait until the page title contains expected text.
     public static boolean waitForTitleContains(String titleFragment) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.titleContains(titleFragment));
+        return WaitEngine.current().until("waitForTitleContains", ExpectedConditions.titleContains(titleFragment));
     }
 
     // Custom wait with timeout override.
     public static WebElement waitForElementVisible(By locator, int timeoutSeconds) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitForElementVisible(locator, Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public static WebElement waitForElementVisible(By locator, Duration timeout) {
+        return WaitEngine.current().until("waitForElementVisible", ObserverWait.visibilityOf(locator, timeout), timeout);
+    }
+
+    /**
+     * Waits until any of the locators matches a visible element, checking all of them in the same polling loop.
+     *
+     * @param locators Candidate locators, e.g. the elements of two alternative page states
+     * @return The first locator, in argument order, that has a visible match
+     * @throws TimeoutException if none of them becomes visible in time
+     */
+    public static By waitForAnyElementToBeVisible(By... locators) {
+        return WaitEngine.current().until("waitForAnyElementToBeVisible", visibilityOfAny(locators));
     }
 
     // Wait until element contains expected text.
     public static boolean waitForTextInElement(By locator, String text) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        return WaitEngine.current().until("waitForTextInElement", ObserverWait.textIn(locator, text, WaitEngine.defaultTimeout()));
     }
 
     // Wait until the current URL contains the expected text.
     public static boolean waitForUrlToContain(String expectedUrlPart, int timeoutSeconds) {
-        WebDriver driver = DriverManager.getDriver();
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
-            return wait.until(ExpectedConditions.urlContains(expectedUrlPart));
+            return WaitEngine.current().until("waitForUrlToContain", ExpectedConditions.urlContains(expectedUrlPart), Duration.ofSeconds(timeoutSeconds));
         } catch (TimeoutException e) {
             return false;
         }
@@ -83,9 +117,7 @@ public class WaitUtils {
      * @return Boolean indicating if the URL matches
      */
     public static Boolean waitUntilUrlToBe(String expectedUrl) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.urlToBe(expectedUrl));
+        return WaitEngine.current().until("waitUntilUrlToBe", ExpectedConditions.urlToBe(expectedUrl));
     }
 
     /**
@@ -95,8 +127,75 @@ public class WaitUtils {
      * @return Boolean indicating if the URL contains the expected part
      */
     public static Boolean waitUntilUrlContains(String partialUrlText) {
-        WebDriver driver = DriverManager.getDriver();
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        return wait.until(ExpectedConditions.urlContains(partialUrlText));
+        return WaitEngine.current().until("waitUntilUrlContains", ExpectedConditions.urlContains(partialUrlText));
+    }
+
+    /**
+     * Waits until the page is idle: document loaded, no jQuery/fetch/XHR request in flight and no busy indicator
+     * shown (see {@link PageReadiness}). Use after clicks that trigger AJAX instead of waiting for their side effects.
+     *
+     * @return true if the page became idle, false if it was still busy when the timeout expired
+     */
+    public static boolean waitForAjaxIdle() {
+        return waitForAjaxIdle(WaitEngine.defaultTimeout());
+    }
+
+    public static boolean waitForAjaxIdle(Duration timeout) {
+        try {
+            return WaitEngine.current().until("waitForAjaxIdle", PageReadiness.ajaxIdle(), timeout);
+        } catch (TimeoutException e) {
+            logger.warn("Page still busy after {} s: {}", timeout.toSeconds(), e.getMessage().lines().findFirst().orElse(""));
+            return false;
+        }
+    }
+
+    /**
+     * Condition that resolves to the first locator with a displayed match. Missing elements are not errors, so
+     * every poll checks every locator.
+     *
+     * @param locators Candidate locators
+     * @return condition resolving to the matching locator
+     */
+    public static ExpectedCondition<By> visibilityOfAny(By... locators) {
+        return new ExpectedCondition<>() {
+            @Override
+            public By apply(WebDriver driver) {
+                for (By locator : locators) {
+                    for (WebElement element : driver.findElements(locator)) {
+                        if (element.isDisplayed()) {
+                            return locator;
+                        }
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public String toString() {
+                return "visibility of any element located by " + Arrays.toString(locators);
+            }
+        };
+    }
+
+    /**
+     * Condition that locates the element once per poll and returns it only when it is both displayed and enabled.
+     * Replaces a visibility wait followed by a separate clickability wait.
+     *
+     * @param locator By locator of the element
+     * @return condition resolving to the clickable element
+     */
+    public static ExpectedCondition<WebElement> visibleAndClickable(By locator) {
+        return new ExpectedCondition<>() {
+            @Override
+            public WebElement apply(WebDriver driver) {
+                WebElement element = driver.findElement(locator);
+                return element.isDisplayed() && element.isEnabled() ? element : null;
+            }
+
+            @Override
+            public String toString() {
+                return "element to be visible and clickable: " + locator;
+            }
+        };
     }
 }
@@ -2,25 +2,44 @@ package base;
 
 import config.ConfigReader;
 import driver.DriverManager;
-import org.openqa.selenium.WebDriver;
+import driver.LaunchProfile;
+import fixture.ShopFixtureServer;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import org.testng.asserts.SoftAssert;
+import utils.ExecutionTimeline;
+import utils.PageMetrics;
 
 public class BaseTest {
-    protected WebDriver driver;
-    protected SoftAssert softAssert; // Shared across test methods
+    // One SoftAssert per thread: test instances are shared between threads when running parallel="methods"
+    private static final ThreadLocal<SoftAssert> softAssert = new ThreadLocal<>();
+
+    @BeforeSuite(alwaysRun = true)
+    public void warmUpDrivers() {
+        // base.url.shop=fixture: serve the shop locally and point base.url.shop at it
+        ShopFixtureServer.startIfSelected();
+        // Pre-launch pooled browser sessions, no-op unless driver.pool.enabled=true
+        DriverManager.warmUp(ConfigReader.get("browser"));
+    }
 
     @BeforeMethod(alwaysRun = true)
     public void setUp() {
+        softAssert.set(new SoftAssert());
+
         String browser = ConfigReader.get("browser");
         DriverManager.createDriver(browser);
 
-        // Avoid storing in instance variable
-        DriverManager.getDriver().manage().window().maximize();
+        // Headless profiles launch with a fixed window size instead
+        if (LaunchProfile.current().isMaximized()) {
+            DriverManager.getDriver().manage().window().maximize();
+        }
 
         String url = ConfigReader.get("base.url.shop");
-        DriverManager.getDriver().get(url);
+        ExecutionTimeline.time(ExecutionTimeline.Category.NAVIGATION, BaseTest.class.getName(), "openBaseUrl", url,
+                () -> DriverManager.getDriver().get(url));
+        PageMetrics.capture(DriverManager.getDriver(), "BaseTest.openBaseUrl");
 
 
     }
@@ -28,5 +47,18 @@ public class BaseTest {
     @AfterMethod(alwaysRun = true)
     public void tearDown() {
         DriverManager.quitDriver();
+        softAssert.remove();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopFixtureShop() {
+        ShopFixtureServer.stopIfStarted();
+    }
+
+    /**
+     * Soft assertions of the test method running on the current thread.
+     */
+    protected SoftAssert softAssert() {
+        return softAssert.get();
     }
-}
\ No newline at end of file
+}
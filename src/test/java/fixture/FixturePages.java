@@ -0,0 +1,99 @@
+package fixture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Templates and static files of the fixture shop, read once from the classpath under fixture/shop/.
+ * <p>
+ * Templates are the recorded storefront markup with {{name}} placeholders; values are inserted as they are, so
+ * anything that came from a request must go through {@link #escape(String)} first.
+ */
+final class FixturePages {
+
+    private static final String ROOT = "fixture/shop/";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    /**
+     * Renders a template.
+     *
+     * @param name   template file name without ".html"
+     * @param values alternating placeholder names and values
+     * @throws IllegalStateException if the template is missing or a placeholder has no value
+     */
+    String render(String name, Object... values) {
+        Map<String, String> byName = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            byName.put(String.valueOf(values[i]), String.valueOf(values[i + 1]));
+        }
+        byte[] template = file(name + ".html");
+        if (template == null) {
+            throw new IllegalStateException("Fixture template not found: " + ROOT + name + ".html");
+        }
+        Matcher matcher = PLACEHOLDER.matcher(new String(template, StandardCharsets.UTF_8));
+        StringBuilder html = new StringBuilder();
+        while (matcher.find()) {
+            String value = byName.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException("No value for {{" + matcher.group(1) + "}} in template " + name);
+            }
+            matcher.appendReplacement(html, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(html);
+        return html.toString();
+    }
+
+    /**
+     * Content of a file under fixture/shop/, null if there is none.
+     */
+    byte[] file(String name) {
+        if (name.contains("..")) {
+            return null;
+        }
+        return files.computeIfAbsent(name, key -> {
+            try (InputStream in = FixturePages.class.getClassLoader().getResourceAsStream(ROOT + key)) {
+                return in == null ? null : in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read fixture file " + ROOT + key, e);
+            }
+        });
+    }
+
+    /**
+     * Escapes text for element content and attribute values.
+     */
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Formats a price the way the storefront does, e.g. "$1,800.00".
+     */
+    static String money(double amount) {
+        return String.format(Locale.US, "$%,.2f", amount);
+    }
+}
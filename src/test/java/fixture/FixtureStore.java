@@ -0,0 +1,241 @@
+package fixture;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of the fixture shop: the recorded catalog, customers and countries from fixture/shop/catalog.json, plus
+ * one {@link Session} per visitor cookie holding checkout progress and the {@link Account} it shops with.
+ * <p>
+ * As in nopCommerce, a guest's cart, wishlist and addresses belong to the visitor cookie, a registered customer's
+ * to the customer: logging in moves the guest cart and wishlist into the customer's, which every session of that
+ * customer then shares, and logging out starts a new, empty guest account. Tests that log in with the seeded
+ * customer in parallel therefore see each other's cart lines, as they would on the real shop.
+ * <p>
+ * Not thread-safe; the server handles one request at a time on the store's monitor.
+ */
+final class FixtureStore {
+
+    private static final String CATALOG = "fixture/shop/catalog.json";
+
+    private final Catalog catalog;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger orderNumbers = new AtomicInteger();
+
+    FixtureStore() {
+        ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try (InputStream in = FixtureStore.class.getClassLoader().getResourceAsStream(CATALOG)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture catalog not found on the classpath: " + CATALOG);
+            }
+            catalog = mapper.readValue(in, Catalog.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixture catalog " + CATALOG, e);
+        }
+        catalog.customers().forEach(customer -> customers.put(customer.email().toLowerCase(), customer));
+    }
+
+    record Catalog(List<Product> products, List<Customer> customers, List<Country> countries) {
+    }
+
+    /**
+     * A product of the catalog.
+     *
+     * @param attributes product attributes shown on the product page, e.g. Processor or RAM
+     * @param giftCard   whether the product page asks for recipient and sender
+     */
+    record Product(int id, String name, String slug, double price, String description,
+                   List<Attribute> attributes, boolean giftCard) {
+
+        Product {
+            attributes = attributes == null ? List.of() : attributes;
+        }
+    }
+
+    /**
+     * A product attribute.
+     *
+     * @param control select, radio or checkbox
+     */
+    record Attribute(int id, String name, String control, boolean required, List<AttributeValue> values) {
+    }
+
+    record AttributeValue(int id, String name, double price) {
+
+        /**
+         * Option text as the shop shows it, e.g. "4GB [+$20.00]".
+         */
+        String label() {
+            return price == 0 ? name : name + " [+" + FixturePages.money(price) + "]";
+        }
+    }
+
+    record Customer(String email, String password, String firstName, String lastName) {
+    }
+
+    record Country(int id, String name, List<String> states) {
+    }
+
+    /**
+     * A cart or wishlist line.
+     *
+     * @param attributes selected attribute values as shown below the product name, empty if none
+     */
+    record Line(int id, Product product, String attributes, double unitPrice, int quantity) {
+
+        Line withQuantity(int newQuantity) {
+            return new Line(id, product, attributes, unitPrice, newQuantity);
+        }
+
+        double subtotal() {
+            return unitPrice * quantity;
+        }
+    }
+
+    /**
+     * A billing address; the state is the state name, empty for countries without states.
+     */
+    record Address(int id, String firstName, String lastName, String email, String company, String country,
+                   String state, String city, String address1, String zipPostalCode, String phoneNumber) {
+
+        String summary() {
+            return firstName + " " + lastName + ", " + address1 + ", " + city + (state.isEmpty() ? "" : ", " + state)
+                    + " " + zipPostalCode + ", " + country;
+        }
+    }
+
+    /**
+     * Cart, wishlist and saved addresses of a guest visitor or a registered customer.
+     */
+    static final class Account {
+        final List<Line> cart = new ArrayList<>();
+        final List<Line> wishlist = new ArrayList<>();
+        final List<Address> addresses = new ArrayList<>();
+        private int nextLineId = 1;
+
+        void add(List<Line> lines, Product product, String attributes, double unitPrice, int quantity) {
+            for (int i = 0; i < lines.size(); i++) {
+                Line line = lines.get(i);
+                if (line.product().id() == product.id() && line.attributes().equals(attributes)) {
+                    lines.set(i, line.withQuantity(line.quantity() + quantity));
+                    return;
+                }
+            }
+            lines.add(new Line(nextLineId++, product, attributes, unitPrice, quantity));
+        }
+
+        static int count(List<Line> lines) {
+            return lines.stream().mapToInt(Line::quantity).sum();
+        }
+
+        static double total(List<Line> lines) {
+            return lines.stream().mapToDouble(Line::subtotal).sum();
+        }
+    }
+
+    /**
+     * One visitor, identified by the customer cookie.
+     */
+    static final class Session {
+        final String id = UUID.randomUUID().toString();
+        final String token = UUID.randomUUID().toString().replace("-", "");
+        final Set<Integer> compared = new LinkedHashSet<>();
+        final Map<String, String> checkout = new LinkedHashMap<>();
+        // The guest account until the visitor logs in, then the customer's
+        Account account = new Account();
+        Customer customer;
+        // Bar notification shown on the next rendered page, e.g. after a redirect
+        String notification;
+        int lastOrder;
+    }
+
+    Session session(String id) {
+        Session session = id == null ? null : sessions.get(id);
+        if (session == null) {
+            session = new Session();
+            sessions.put(session.id, session);
+        }
+        return session;
+    }
+
+    List<Product> products() {
+        return catalog.products();
+    }
+
+    Optional<Product> product(int id) {
+        return catalog.products().stream().filter(product -> product.id() == id).findFirst();
+    }
+
+    Optional<Product> productBySlug(String slug) {
+        return catalog.products().stream().filter(product -> product.slug().equals(slug)).findFirst();
+    }
+
+    List<Country> countries() {
+        return catalog.countries();
+    }
+
+    Optional<Country> country(int id) {
+        return catalog.countries().stream().filter(country -> country.id() == id).findFirst();
+    }
+
+    /**
+     * The customer with these credentials, empty if the email is unknown or the password wrong.
+     */
+    Optional<Customer> authenticate(String email, String password) {
+        Customer customer = email == null ? null : customers.get(email.trim().toLowerCase());
+        return customer != null && customer.password().equals(password) ? Optional.of(customer) : Optional.empty();
+    }
+
+    /**
+     * Registers a customer, false if the email is taken (the seeded customers count as taken).
+     */
+    boolean register(Customer customer) {
+        return customers.putIfAbsent(customer.email().trim().toLowerCase(), customer) == null;
+    }
+
+    /**
+     * Logs the session in as the customer, moving the guest cart and wishlist lines into the customer's account.
+     */
+    void signIn(Session session, Customer customer) {
+        Account account = accounts.computeIfAbsent(customer.email().trim().toLowerCase(), email -> new Account());
+        if (account != session.account) {
+            for (Line line : session.account.cart) {
+                account.add(account.cart, line.product(), line.attributes(), line.unitPrice(), line.quantity());
+            }
+            for (Line line : session.account.wishlist) {
+                account.add(account.wishlist, line.product(), line.attributes(), line.unitPrice(), line.quantity());
+            }
+        }
+        session.customer = customer;
+        session.account = account;
+    }
+
+    /**
+     * Logs the session out; the visitor continues as a new guest with an empty cart.
+     */
+    void signOut(Session session) {
+        session.customer = null;
+        session.account = new Account();
+        session.checkout.clear();
+    }
+
+    int nextOrderNumber() {
+        return orderNumbers.incrementAndGet();
+    }
+}
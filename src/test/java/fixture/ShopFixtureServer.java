@@ -0,0 +1,976 @@
+package fixture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigReader;
+import fixture.FixtureStore.Account;
+import fixture.FixtureStore.Address;
+import fixture.FixtureStore.Attribute;
+import fixture.FixtureStore.AttributeValue;
+import fixture.FixtureStore.Country;
+import fixture.FixtureStore.Customer;
+import fixture.FixtureStore.Line;
+import fixture.FixtureStore.Product;
+import fixture.FixtureStore.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for the nopCommerce storefront, so the suite and the benchmarks can run offline against a
+ * shop that always answers the same way.
+ * <p>
+ * Serves recorded storefront markup (fixture/shop/ on the classpath) for the pages the tests visit: home and
+ * search, product details, cart, wishlist, login, registration and one-page checkout, plus the AJAX endpoints
+ * behind them (add to cart/wishlist/compare, state list, the checkout steps). URLs, element ids, classes,
+ * cookies and messages follow nopCommerce 4.x, so page objects and {@link api.StorefrontClient} work unchanged.
+ * Catalog, customers and countries come from fixture/shop/catalog.json; carts follow the customer once logged in,
+ * as in nopCommerce.
+ * <p>
+ * Selected with base.url.shop=fixture: {@link #startIfSelected()} starts one server for the JVM on fixture.port
+ * (0 = any free port) and points base.url.shop at it. fixture.latency.ms delays every response, e.g. to
+ * measure waits against a slow shop. Run {@link #main(String[])} to browse the fixture by hand.
+ */
+public final class ShopFixtureServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopFixtureServer.class);
+
+    /**
+     * Value of base.url.shop that selects the fixture shop.
+     */
+    public static final String SELECTOR = "fixture";
+
+    private static final String CUSTOMER_COOKIE = ".Nop.Customer";
+    private static final String AUTHENTICATION_COOKIE = ".Nop.Authentication";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static ShopFixtureServer shared;
+    private static boolean selected;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FixtureStore store = new FixtureStore();
+    private final FixturePages pages = new FixturePages();
+    private final List<Route> routes = new ArrayList<>();
+    private final long latencyMillis;
+
+    private ShopFixtureServer(int port, long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-shop-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+
+        route("GET", "/", this::home);
+        route("GET", "/search", this::search);
+        route("POST", "/addproducttocart/catalog/(\\d+)/(\\d+)/(\\d+)", this::addToCartFromCatalog);
+        route("POST", "/addproducttocart/details/(\\d+)/(\\d+)", this::addToCartFromDetails);
+        route("POST", "/compareproducts/add/(\\d+)", this::addToCompareList);
+        route("GET", "/compareproducts", this::compareList);
+        route("GET", "/productemailafriend/(\\d+)", this::emailAFriend);
+        route("GET", "/cart", this::cart);
+        route("POST", "/cart", this::updateCart);
+        route("GET", "/wishlist", this::wishlist);
+        route("POST", "/wishlist", this::updateWishlist);
+        route("GET", "/login", this::login);
+        route("POST", "/login", this::submitLogin);
+        route("GET", "/logout", this::logout);
+        route("GET", "/register", this::register);
+        route("POST", "/register", this::submitRegistration);
+        route("GET", "/registerresult/\\d+", this::registrationResult);
+        route("GET", "/checkout", (call, path) -> call.redirect("/onepagecheckout"));
+        route("GET", "/onepagecheckout", this::checkout);
+        route("GET", "/country/getstatesbycountryid", this::states);
+        route("POST", "/checkout/OpcSaveBilling/?", this::saveBilling);
+        route("POST", "/checkout/OpcSaveShippingMethod/?", this::saveShippingMethod);
+        route("POST", "/checkout/OpcSavePaymentMethod/?", this::savePaymentMethod);
+        route("POST", "/checkout/OpcSavePaymentInfo/?", this::savePaymentInfo);
+        route("POST", "/checkout/OpcConfirmOrder/?", this::confirmOrder);
+        route("GET", "/checkout/completed(?:/\\d+)?", this::orderCompleted);
+        route("GET", "/orderdetails/(\\d+)", this::orderDetails);
+        route("GET", "/fixture/([\\w-]+\\.(?:js|css))", this::staticFile);
+        // Product pages use their slug as the whole path, so this one goes last
+        route("GET", "/([\\w-]+)", this::product);
+    }
+
+    /**
+     * Starts the fixture shop if base.url.shop=fixture and points base.url.shop at it. Later calls reuse the
+     * running server, or start a new one after {@link #stopIfStarted()}.
+     */
+    public static synchronized void startIfSelected() {
+        // base.url.shop holds the fixture's URL once started, so remember the selection for later suites
+        selected |= SELECTOR.equalsIgnoreCase(ConfigReader.get("base.url.shop", ""));
+        if (!selected) {
+            return;
+        }
+        if (shared == null) {
+            shared = start(ConfigReader.getInt("fixture.port", 0), ConfigReader.getInt("fixture.latency.ms", 0));
+        }
+        System.setProperty("base.url.shop", shared.baseUrl());
+    }
+
+    /**
+     * Stops the shop started by {@link #startIfSelected()}, if any. Its HTTP dispatcher thread would otherwise
+     * keep the JVM alive.
+     */
+    public static synchronized void stopIfStarted() {
+        if (shared != null) {
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    /**
+     * Starts a fixture shop on the loopback interface.
+     *
+     * @param port          port to listen on, 0 for any free port
+     * @param latencyMillis delay before every response
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public static ShopFixtureServer start(int port, long latencyMillis) {
+        try {
+            ShopFixtureServer fixture = new ShopFixtureServer(port, latencyMillis);
+            fixture.server.start();
+            logger.info("Fixture shop serving at {}", fixture.baseUrl());
+            return fixture;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the fixture shop on port " + port, e);
+        }
+    }
+
+    /**
+     * Storefront root, e.g. "http://localhost:51234/".
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the fixture shop until the process is stopped: {@code [port]}, default fixture.port.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ConfigReader.getInt("fixture.port", 0);
+        ShopFixtureServer fixture = start(port, ConfigReader.getInt("fixture.latency.ms", 0));
+        Runtime.getRuntime().addShutdownHook(new Thread(fixture::stop, "fixture-shop-shutdown"));
+        new CountDownLatch(1).await();
+    }
+
+    /* *************************************************************************************************************
+     * Request handling
+     **************************************************************************************************************/
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(Call call, Matcher path) throws IOException;
+    }
+
+    private record Route(String method, Pattern path, Handler handler) {
+    }
+
+    private void route(String method, String path, Handler handler) {
+        routes.add(new Route(method, Pattern.compile(path), handler));
+    }
+
+    private void handle(HttpExchange exchange) {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        try (exchange) {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            Call call = new Call(exchange);
+            synchronized (store) {
+                for (Route route : routes) {
+                    Matcher matcher = route.path().matcher(path);
+                    if (route.method().equals(method) && matcher.matches()) {
+                        route.handler().handle(call, matcher);
+                        return;
+                    }
+                }
+                call.page(404, "Page not found", pages.render("not-found", "path", FixturePages.escape(path)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Fixture shop failed on {} {}: {}", method, path, e.toString());
+            try {
+                exchange.sendResponseHeaders(500, -1);
+            } catch (IOException ignored) {
+                // Response already started
+            }
+        }
+    }
+
+    /**
+     * One request: the visitor's session, query and form parameters, and the ways to answer.
+     */
+    private final class Call {
+        final HttpExchange exchange;
+        final Session session;
+        final Map<String, List<String>> params = new LinkedHashMap<>();
+
+        Call(HttpExchange exchange) throws IOException {
+            this.exchange = exchange;
+            String cookie = cookies(exchange).get(CUSTOMER_COOKIE);
+            this.session = store.session(cookie);
+            if (!session.id.equals(cookie)) {
+                exchange.getResponseHeaders().add("Set-Cookie", CUSTOMER_COOKIE + "=" + session.id + "; Path=/; HttpOnly; SameSite=Lax");
+            }
+            parse(exchange.getRequestURI().getRawQuery());
+            parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        String param(String name) {
+            List<String> values = params.get(name);
+            return values == null || values.isEmpty() ? "" : values.get(0).trim();
+        }
+
+        List<String> params(String name) {
+            return params.getOrDefault(name, List.of());
+        }
+
+        boolean has(String name) {
+            return params.containsKey(name);
+        }
+
+        int intParam(String name, int defaultValue) {
+            try {
+                return Integer.parseInt(param(name));
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        void page(String title, String body) throws IOException {
+            page(200, title, body);
+        }
+
+        void page(int status, String title, String body) throws IOException {
+            String notification = session.notification == null ? "" : session.notification;
+            session.notification = null;
+            String html = pages.render("layout",
+                    "title", title,
+                    "notification", notification,
+                    "accountLinks", accountLinks(session),
+                    "wishlistQty", Account.count(session.account.wishlist),
+                    "cartQty", Account.count(session.account.cart),
+                    "body", body);
+            send(status, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void json(Object value) throws IOException {
+            try {
+                send(200, "application/json; charset=utf-8", mapper.writeValueAsBytes(value));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize fixture response", e);
+            }
+        }
+
+        void redirect(String location) throws IOException {
+            exchange.getResponseHeaders().add("Location", location);
+            exchange.sendResponseHeaders(302, -1);
+        }
+
+        void send(int status, String contentType, byte[] body) throws IOException {
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache, no-store");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+
+        void signIn(Customer customer) {
+            store.signIn(session, customer);
+            exchange.getResponseHeaders().add("Set-Cookie", AUTHENTICATION_COOKIE + "=" + session.token + "; Path=/; HttpOnly; SameSite=Lax");
+        }
+
+        private void parse(String encoded) {
+            if (encoded == null || encoded.isEmpty()) {
+                return;
+            }
+            for (String pair : encoded.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+                String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                params.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+    }
+
+    private static Map<String, String> cookies(HttpExchange exchange) {
+        Map<String, String> cookies = new LinkedHashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                int equals = cookie.indexOf('=');
+                if (equals > 0) {
+                    cookies.put(cookie.substring(0, equals).trim(), cookie.substring(equals + 1).trim());
+                }
+            }
+        }
+        return cookies;
+    }
+
+    /* *************************************************************************************************************
+     * Catalog
+     **************************************************************************************************************/
+
+    private void home(Call call, Matcher path) throws IOException {
+        call.page("Home page", pages.render("home", "products", productBoxes(store.products())));
+    }
+
+    private void search(Call call, Matcher path) throws IOException {
+        String query = call.param("q");
+        List<Product> found = store.products().stream()
+                .filter(product -> !query.isEmpty() && product.name().toLowerCase().contains(query.toLowerCase()))
+                .toList();
+        String results = found.isEmpty()
+                ? pages.render("search-empty")
+                : pages.render("search-results", "products", productBoxes(found));
+        call.page("Search", pages.render("search", "q", FixturePages.escape(query), "results", results));
+    }
+
+    private void product(Call call, Matcher path) throws IOException {
+        Optional<Product> found = store.productBySlug(path.group(1));
+        if (found.isEmpty()) {
+            call.page(404, "Page not found", pages.render("not-found", "path", FixturePages.escape(path.group())));
+            return;
+        }
+        Product product = found.get();
+        List<Product> related = store.products().stream().filter(other -> other.id() != product.id()).toList();
+        call.page(product.name(), pages.render("product",
+                "id", product.id(),
+                "slug", product.slug(),
+                "name", FixturePages.escape(product.name()),
+                "description", FixturePages.escape(product.description()),
+                "price", FixturePages.money(product.price()),
+                "attributes", attributeInputs(product),
+                "giftCard", product.giftCard() ? pages.render("gift-card", "id", product.id()) : "",
+                "related", productBoxes(related)));
+    }
+
+    private void emailAFriend(Call call, Matcher path) throws IOException {
+        Optional<Product> product = store.product(Integer.parseInt(path.group(1)));
+        if (product.isEmpty()) {
+            call.redirect("/");
+            return;
+        }
+        call.page("Email a friend", pages.render("email-a-friend",
+                "id", product.get().id(),
+                "slug", product.get().slug(),
+                "name", FixturePages.escape(product.get().name())));
+    }
+
+    private void addToCartFromCatalog(Call call, Matcher path) throws IOException {
+        Optional<Product> product = store.product(Integer.parseInt(path.group(1)));
+        if (product.isEmpty()) {
+            call.json(Map.of("success", false, "message", "No product found with the specified ID"));
+        } else if (!product.get().attributes().isEmpty() || product.get().giftCard()) {
+            // Products with attributes cannot be added from a product box, the shop sends the visitor to the product page
+            call.json(Map.of("redirect", "/" + product.get().slug()));
+        } else {
+            addLine(call, product.get(), "", product.get().price(), Integer.parseInt(path.group(3)), path.group(2));
+        }
+    }
+
+    private void addToCartFromDetails(Call call, Matcher path) throws IOException {
+        Optional<Product> found = store.product(Integer.parseInt(path.group(1)));
+        if (found.isEmpty()) {
+            call.json(Map.of("success", false, "message", "No product found with the specified ID"));
+            return;
+        }
+        Product product = found.get();
+        List<String> errors = new ArrayList<>();
+        List<String> description = new ArrayList<>();
+        double unitPrice = product.price();
+        for (Attribute attribute : product.attributes()) {
+            List<AttributeValue> selected = attribute.values().stream()
+                    .filter(value -> call.params("product_attribute_" + attribute.id()).contains(String.valueOf(value.id())))
+                    .toList();
+            if (selected.isEmpty() && attribute.required()) {
+                errors.add("Please select " + attribute.name());
+            }
+            for (AttributeValue value : selected) {
+                description.add(FixturePages.escape(attribute.name() + ": " + value.label()));
+                unitPrice += value.price();
+            }
+        }
+        if (product.giftCard()) {
+            String prefix = "giftcard_" + product.id() + ".";
+            String recipientEmail = call.param(prefix + "RecipientEmail");
+            String senderEmail = call.param(prefix + "SenderEmail");
+            if (call.param(prefix + "RecipientName").isEmpty()) {
+                errors.add("Enter valid recipient name");
+            }
+            if (!EMAIL.matcher(recipientEmail).matches()) {
+                errors.add("Enter valid recipient email");
+            }
+            if (call.param(prefix + "SenderName").isEmpty()) {
+                errors.add("Enter valid sender name");
+            }
+            if (!EMAIL.matcher(senderEmail).matches()) {
+                errors.add("Enter valid sender email");
+            }
+            description.add(FixturePages.escape("From: " + call.param(prefix + "SenderName") + " <" + senderEmail + ">"));
+            description.add(FixturePages.escape("For: " + call.param(prefix + "RecipientName") + " <" + recipientEmail + ">"));
+        }
+        int quantity = call.intParam("addtocart_" + product.id() + ".EnteredQuantity", 1);
+        if (quantity <= 0) {
+            errors.add("Quantity should be positive");
+        }
+        if (!errors.isEmpty()) {
+            call.json(Map.of("success", false, "message", errors));
+            return;
+        }
+        addLine(call, product, String.join("<br/>", description), unitPrice, quantity, path.group(2));
+    }
+
+    /**
+     * Adds a line to the cart (type 1) or the wishlist (type 2) and answers like the storefront's AJAX cart.
+     */
+    private void addLine(Call call, Product product, String attributes, double unitPrice, int quantity, String type)
+            throws IOException {
+        boolean wishlist = type.equals("2");
+        List<Line> lines = wishlist ? call.session.account.wishlist : call.session.account.cart;
+        call.session.account.add(lines, product, attributes, unitPrice, quantity);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        if (wishlist) {
+            response.put("message", "The product has been added to your <a href=\"/wishlist\">wishlist</a>");
+            response.put("updatetopwishlistsectionhtml", "(" + Account.count(lines) + ")");
+        } else {
+            response.put("message", "The product has been added to your <a href=\"/cart\">shopping cart</a>");
+            response.put("updatetopcartsectionhtml", "(" + Account.count(lines) + ")");
+        }
+        call.json(response);
+    }
+
+    private void addToCompareList(Call call, Matcher path) throws IOException {
+        Optional<Product> product = store.product(Integer.parseInt(path.group(1)));
+        if (product.isEmpty()) {
+            call.json(Map.of("success", false, "message", "No product found with the specified ID"));
+            return;
+        }
+        call.session.compared.add(product.get().id());
+        call.json(Map.of("success", true,
+                "message", "The product has been added to your <a href=\"/compareproducts\">product comparison</a>"));
+    }
+
+    private void compareList(Call call, Matcher path) throws IOException {
+        String products = call.session.compared.stream()
+                .map(store::product)
+                .flatMap(Optional::stream)
+                .map(product -> "<td><a href=\"/" + product.slug() + "\">" + FixturePages.escape(product.name()) + "</a></td>")
+                .collect(Collectors.joining("\n"));
+        call.page("Compare products", pages.render("compare", "products", products));
+    }
+
+    /* *************************************************************************************************************
+     * Cart and wishlist
+     **************************************************************************************************************/
+
+    private void cart(Call call, Matcher path) throws IOException {
+        List<Line> cart = call.session.account.cart;
+        if (cart.isEmpty()) {
+            call.page("Shopping Cart", pages.render("cart-empty"));
+            return;
+        }
+        call.page("Shopping Cart", pages.render("cart",
+                "rows", lineRows("cart-row", cart),
+                "totals", totals(cart),
+                "token", call.session.token));
+    }
+
+    private void updateCart(Call call, Matcher path) throws IOException {
+        List<Line> cart = call.session.account.cart;
+        if (call.has("continueshopping")) {
+            call.redirect("/");
+        } else if (call.has("checkout")) {
+            call.redirect(!cart.isEmpty() && call.has("termsofservice") ? "/onepagecheckout" : "/cart");
+        } else {
+            updateLines(call, cart);
+            call.redirect("/cart");
+        }
+    }
+
+    private void wishlist(Call call, Matcher path) throws IOException {
+        List<Line> wishlist = call.session.account.wishlist;
+        call.page("Wishlist", wishlist.isEmpty()
+                ? pages.render("wishlist-empty")
+                : pages.render("wishlist", "rows", lineRows("wishlist-row", wishlist), "token", call.session.token));
+    }
+
+    private void updateWishlist(Call call, Matcher path) throws IOException {
+        List<Line> wishlist = call.session.account.wishlist;
+        updateLines(call, wishlist);
+        if (!call.has("addtocartbutton")) {
+            call.redirect("/wishlist");
+            return;
+        }
+        List<String> selected = call.params("addtocart");
+        List<Line> moved = wishlist.stream().filter(line -> selected.contains(String.valueOf(line.id()))).toList();
+        if (moved.isEmpty()) {
+            call.session.notification = notification("error", "No products selected to add to cart.");
+            call.redirect("/wishlist");
+            return;
+        }
+        for (Line line : moved) {
+            call.session.account.add(call.session.account.cart, line.product(), line.attributes(), line.unitPrice(), line.quantity());
+            wishlist.remove(line);
+        }
+        call.redirect("/cart");
+    }
+
+    /**
+     * Applies the quantity inputs and the remove button of a cart or wishlist form; a quantity of 0 removes the line.
+     */
+    private static void updateLines(Call call, List<Line> lines) {
+        String remove = call.param("updatecart").startsWith("removefromcart-") ? call.param("updatecart").substring(15) : "";
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            Line line = lines.get(i);
+            int quantity = call.intParam("itemquantity" + line.id(), line.quantity());
+            if (remove.equals(String.valueOf(line.id())) || quantity <= 0) {
+                lines.remove(i);
+            } else if (quantity != line.quantity()) {
+                lines.set(i, line.withQuantity(quantity));
+            }
+        }
+    }
+
+    /* *************************************************************************************************************
+     * Customer
+     **************************************************************************************************************/
+
+    private void login(Call call, Matcher path) throws IOException {
+        call.page("Login", loginPage(call, "", ""));
+    }
+
+    private void submitLogin(Call call, Matcher path) throws IOException {
+        Optional<Customer> customer = store.authenticate(call.param("Email"), call.params("Password").stream().findFirst().orElse(""));
+        if (customer.isEmpty()) {
+            call.page("Login", loginPage(call, pages.render("login-errors"), call.param("Email")));
+            return;
+        }
+        call.signIn(customer.get());
+        call.redirect(localUrl(call.param("returnUrl")));
+    }
+
+    private String loginPage(Call call, String errors, String email) {
+        return pages.render("login",
+                "returnUrl", FixturePages.escape(URLEncoder.encode(localUrl(call.param("returnUrl")), StandardCharsets.UTF_8)),
+                "errors", errors,
+                "email", FixturePages.escape(email),
+                "token", call.session.token);
+    }
+
+    private void logout(Call call, Matcher path) throws IOException {
+        store.signOut(call.session);
+        call.exchange.getResponseHeaders().add("Set-Cookie", AUTHENTICATION_COOKIE + "=; Path=/; Max-Age=0");
+        call.redirect("/");
+    }
+
+    private void register(Call call, Matcher path) throws IOException {
+        call.page("Register", registerPage(call, List.of()));
+    }
+
+    private void submitRegistration(Call call, Matcher path) throws IOException {
+        // The page validates on the client too; these are the same rules for posts that skip the script
+        String email = call.param("Email");
+        String password = call.params("Password").stream().findFirst().orElse("");
+        List<String> errors = new ArrayList<>();
+        if (call.param("FirstName").isEmpty()) {
+            errors.add("First name is required.");
+        }
+        if (call.param("LastName").isEmpty()) {
+            errors.add("Last name is required.");
+        }
+        if (email.isEmpty()) {
+            errors.add("Email is required.");
+        } else if (!EMAIL.matcher(email).matches()) {
+            errors.add("Wrong email");
+        }
+        if (password.length() < 6 || password.length() > 64) {
+            errors.add("Password must meet the following rules: must have at least 6 characters and not greater than 64 characters");
+        } else if (!password.equals(call.params("ConfirmPassword").stream().findFirst().orElse(""))) {
+            errors.add("The password and confirmation password do not match.");
+        }
+        Customer customer = new Customer(email, password, call.param("FirstName"), call.param("LastName"));
+        if (errors.isEmpty() && !store.register(customer)) {
+            errors.add("The specified email already exists");
+        }
+        if (!errors.isEmpty()) {
+            call.page("Register", registerPage(call, errors));
+            return;
+        }
+        call.signIn(customer);
+        call.redirect("/registerresult/1?returnUrl=%2F");
+    }
+
+    private String registerPage(Call call, List<String> errors) {
+        String messages = errors.stream().map(error -> "<li>" + FixturePages.escape(error) + "</li>").collect(Collectors.joining());
+        return pages.render("register",
+                "errors", errors.isEmpty() ? "" : pages.render("register-errors", "messages", messages),
+                "firstName", FixturePages.escape(call.param("FirstName")),
+                "lastName", FixturePages.escape(call.param("LastName")),
+                "email", FixturePages.escape(call.param("Email")),
+                "company", FixturePages.escape(call.param("Company")),
+                "token", call.session.token);
+    }
+
+    private void registrationResult(Call call, Matcher path) throws IOException {
+        call.page("Register", pages.render("register-result"));
+    }
+
+    /* *************************************************************************************************************
+     * One-page checkout
+     **************************************************************************************************************/
+
+    private void checkout(Call call, Matcher path) throws IOException {
+        Session session = call.session;
+        if (session.account.cart.isEmpty()) {
+            call.redirect("/cart");
+            return;
+        }
+        session.checkout.clear();
+        String addressSelect = "";
+        if (!session.account.addresses.isEmpty()) {
+            String options = session.account.addresses.stream()
+                    .map(address -> "<option value=\"" + address.id() + "\">" + FixturePages.escape(address.summary()) + "</option>")
+                    .collect(Collectors.joining("\n"));
+            addressSelect = pages.render("checkout-address-select", "options", options);
+        }
+        String countries = store.countries().stream()
+                .map(country -> "<option value=\"" + country.id() + "\">" + FixturePages.escape(country.name()) + "</option>")
+                .collect(Collectors.joining("\n"));
+        Customer customer = session.customer;
+        String billing = pages.render("checkout-billing",
+                "addressSelect", addressSelect,
+                "newAddressStyle", session.account.addresses.isEmpty() ? "" : " style=\"display: none\"",
+                "firstName", customer == null ? "" : FixturePages.escape(customer.firstName()),
+                "lastName", customer == null ? "" : FixturePages.escape(customer.lastName()),
+                "email", customer == null ? "" : FixturePages.escape(customer.email()),
+                "countries", countries);
+        call.page("Checkout", pages.render("checkout", "billing", billing));
+    }
+
+    private void states(Call call, Matcher path) throws IOException {
+        List<Map<String, Object>> states = new ArrayList<>();
+        Optional<Country> country = store.country(call.intParam("countryId", 0));
+        if (country.isPresent() && country.get().states().isEmpty()) {
+            states.add(Map.of("id", 0, "name", "Other"));
+        } else {
+            states.add(Map.of("id", 0, "name", "Select state"));
+            country.ifPresent(found -> {
+                for (int i = 0; i < found.states().size(); i++) {
+                    states.add(Map.of("id", stateId(found, i), "name", found.states().get(i)));
+                }
+            });
+        }
+        call.json(states);
+    }
+
+    private void saveBilling(Call call, Matcher path) throws IOException {
+        Session session = call.session;
+        String selected = call.param("billing_address_id");
+        if (!selected.isEmpty()) {
+            Optional<Address> address = session.account.addresses.stream()
+                    .filter(saved -> String.valueOf(saved.id()).equals(selected))
+                    .findFirst();
+            if (address.isEmpty()) {
+                call.json(checkoutError(List.of("Address can't be loaded")));
+                return;
+            }
+            session.checkout.put("billing", selected);
+            call.json(nextSection("shipping-method", pages.render("checkout-shipping-method")));
+            return;
+        }
+
+        String prefix = "BillingNewAddress.";
+        List<String> errors = new ArrayList<>();
+        String email = call.param(prefix + "Email");
+        requireField(call, prefix + "FirstName", "First name is required.", errors);
+        requireField(call, prefix + "LastName", "Last name is required.", errors);
+        if (email.isEmpty()) {
+            errors.add("Email is required.");
+        } else if (!EMAIL.matcher(email).matches()) {
+            errors.add("Wrong email");
+        }
+        Optional<Country> country = store.country(call.intParam(prefix + "CountryId", 0));
+        String state = "";
+        if (country.isEmpty()) {
+            errors.add("Country is required.");
+        } else if (!country.get().states().isEmpty()) {
+            state = stateName(country.get(), call.intParam(prefix + "StateProvinceId", 0));
+            if (state.isEmpty()) {
+                errors.add("State / province is required.");
+            }
+        }
+        requireField(call, prefix + "City", "City is required.", errors);
+        requireField(call, prefix + "Address1", "Street address is required.", errors);
+        requireField(call, prefix + "ZipPostalCode", "Zip / postal code is required.", errors);
+        requireField(call, prefix + "PhoneNumber", "Phone is required.", errors);
+        if (!errors.isEmpty()) {
+            call.json(checkoutError(errors));
+            return;
+        }
+
+        Address address = new Address(session.account.addresses.size() + 1, call.param(prefix + "FirstName"),
+                call.param(prefix + "LastName"), email, call.param(prefix + "Company"), country.get().name(), state,
+                call.param(prefix + "City"), call.param(prefix + "Address1"), call.param(prefix + "ZipPostalCode"),
+                call.param(prefix + "PhoneNumber"));
+        session.account.addresses.add(address);
+        session.checkout.put("billing", String.valueOf(address.id()));
+        call.json(nextSection("shipping-method", pages.render("checkout-shipping-method")));
+    }
+
+    private void saveShippingMethod(Call call, Matcher path) throws IOException {
+        if (!saveStep(call, "billing", "shippingoption", "Shipping method is not selected")) {
+            return;
+        }
+        call.json(nextSection("payment-method", pages.render("checkout-payment-method")));
+    }
+
+    private void savePaymentMethod(Call call, Matcher path) throws IOException {
+        if (!saveStep(call, "shippingoption", "paymentmethod", "Payment method is not selected")) {
+            return;
+        }
+        String info;
+        if (call.param("paymentmethod").equals("Payments.Manual")) {
+            StringBuilder months = new StringBuilder();
+            for (int month = 1; month <= 12; month++) {
+                months.append(String.format("<option value=\"%d\">%02d</option>%n", month, month));
+            }
+            StringBuilder years = new StringBuilder();
+            int current = YearMonth.now().getYear();
+            for (int year = current; year < current + 15; year++) {
+                years.append(String.format("<option value=\"%d\">%d</option>%n", year, year));
+            }
+            info = pages.render("payment-card", "months", months, "years", years);
+        } else {
+            info = pages.render("payment-money-order");
+        }
+        call.json(nextSection("payment-info", pages.render("checkout-payment-info", "info", info)));
+    }
+
+    private void savePaymentInfo(Call call, Matcher path) throws IOException {
+        Session session = call.session;
+        if (!session.checkout.containsKey("paymentmethod")) {
+            call.json(checkoutError(List.of("Payment method is not selected")));
+            return;
+        }
+        if (session.checkout.get("paymentmethod").equals("Payments.Manual")) {
+            List<String> errors = new ArrayList<>();
+            requireField(call, "CardholderName", "Enter cardholder name", errors);
+            if (!call.param("CardNumber").matches("\\d{12,19}")) {
+                errors.add("Wrong card number");
+            }
+            if (!call.param("CardCode").matches("\\d{3,4}")) {
+                errors.add("Wrong card code");
+            }
+            YearMonth expiry = YearMonth.of(call.intParam("ExpireYear", 0), Math.max(1, Math.min(12, call.intParam("ExpireMonth", 1))));
+            if (expiry.isBefore(YearMonth.now())) {
+                errors.add("Card is expired");
+            }
+            if (!errors.isEmpty()) {
+                call.json(checkoutError(errors));
+                return;
+            }
+        }
+        session.checkout.put("paymentinfo", "saved");
+        call.json(nextSection("confirm-order", pages.render("checkout-confirm-order",
+                "rows", lineRows("order-row", session.account.cart),
+                "totals", totals(session.account.cart))));
+    }
+
+    private void confirmOrder(Call call, Matcher path) throws IOException {
+        Session session = call.session;
+        if (!session.checkout.containsKey("paymentinfo") || session.account.cart.isEmpty()) {
+            call.json(checkoutError(List.of("Your order cannot be completed, please go through the checkout steps again")));
+            return;
+        }
+        session.lastOrder = store.nextOrderNumber();
+        session.account.cart.clear();
+        session.checkout.clear();
+        call.json(Map.of("success", true, "redirect", "/checkout/completed"));
+    }
+
+    private void orderCompleted(Call call, Matcher path) throws IOException {
+        if (call.session.lastOrder == 0) {
+            call.redirect("/");
+            return;
+        }
+        call.page("Checkout", pages.render("completed", "orderNumber", call.session.lastOrder));
+    }
+
+    private void orderDetails(Call call, Matcher path) throws IOException {
+        call.page("Order information", pages.render("order-details", "orderNumber", Integer.parseInt(path.group(1))));
+    }
+
+    /**
+     * Stores a step's choice if the previous step is done, otherwise answers with an error.
+     */
+    private static boolean saveStep(Call call, String previous, String name, String missing) throws IOException {
+        if (!call.session.checkout.containsKey(previous) || call.param(name).isEmpty()) {
+            call.json(checkoutError(List.of(missing)));
+            return false;
+        }
+        call.session.checkout.put(name, call.param(name));
+        return true;
+    }
+
+    private static void requireField(Call call, String name, String message, List<String> errors) {
+        if (call.param(name).isEmpty()) {
+            errors.add(message);
+        }
+    }
+
+    private static Map<String, Object> checkoutError(List<String> messages) {
+        return Map.of("error", true, "message", messages);
+    }
+
+    private static Map<String, Object> nextSection(String name, String html) {
+        return Map.of("update_section", Map.of("name", name, "html", html), "goto_section", name);
+    }
+
+    private static int stateId(Country country, int index) {
+        return country.id() * 100 + index + 1;
+    }
+
+    private static String stateName(Country country, int stateId) {
+        for (int i = 0; i < country.states().size(); i++) {
+            if (stateId(country, i) == stateId) {
+                return country.states().get(i);
+            }
+        }
+        return "";
+    }
+
+    /* *************************************************************************************************************
+     * Fragments
+     **************************************************************************************************************/
+
+    private void staticFile(Call call, Matcher path) throws IOException {
+        String name = path.group(1);
+        byte[] content = pages.file(name);
+        if (content == null) {
+            call.send(404, "text/plain; charset=utf-8", new byte[0]);
+            return;
+        }
+        call.send(200, (name.endsWith(".js") ? "text/javascript" : "text/css") + "; charset=utf-8", content);
+    }
+
+    private String productBoxes(List<Product> products) {
+        return products.stream()
+                .map(product -> pages.render("product-box",
+                        "id", product.id(),
+                        "slug", product.slug(),
+                        "name", FixturePages.escape(product.name()),
+                        "description", FixturePages.escape(product.description()),
+                        "price", FixturePages.money(product.price())))
+                .collect(Collectors.joining());
+    }
+
+    private static String attributeInputs(Product product) {
+        if (product.attributes().isEmpty()) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder("<div class=\"attributes\"><dl>\n");
+        for (Attribute attribute : product.attributes()) {
+            String name = "product_attribute_" + attribute.id();
+            html.append("<dt id=\"product_attribute_label_").append(attribute.id()).append("\"><label class=\"text-prompt\">")
+                    .append(FixturePages.escape(attribute.name())).append("</label>")
+                    .append(attribute.required() ? "<span class=\"required\">*</span>" : "").append("</dt>\n")
+                    .append("<dd id=\"product_attribute_input_").append(attribute.id()).append("\">\n");
+            if (attribute.control().equals("select")) {
+                html.append("<select name=\"").append(name).append("\" id=\"").append(name).append("\">\n")
+                        .append("<option value=\"0\">---</option>\n");
+                for (AttributeValue value : attribute.values()) {
+                    html.append("<option value=\"").append(value.id()).append("\">")
+                            .append(FixturePages.escape(value.label())).append("</option>\n");
+                }
+                html.append("</select>\n");
+            } else {
+                html.append("<ul class=\"option-list\">\n");
+                for (AttributeValue value : attribute.values()) {
+                    String id = name + "_" + value.id();
+                    html.append("<li><input id=\"").append(id).append("\" type=\"").append(attribute.control())
+                            .append("\" name=\"").append(name).append("\" value=\"").append(value.id()).append("\"/>")
+                            .append("<label for=\"").append(id).append("\">").append(FixturePages.escape(value.label()))
+                            .append("</label></li>\n");
+                }
+                html.append("</ul>\n");
+            }
+            html.append("</dd>\n");
+        }
+        return html.append("</dl></div>").toString();
+    }
+
+    private String lineRows(String template, List<Line> lines) {
+        return lines.stream()
+                .map(line -> pages.render(template,
+                        "lineId", line.id(),
+                        "slug", line.product().slug(),
+                        "name", FixturePages.escape(line.product().name()),
+                        "attributes", line.attributes().isEmpty() ? "" : "<div class=\"attributes\">" + line.attributes() + "</div>",
+                        "unitPrice", FixturePages.money(line.unitPrice()),
+                        "quantity", line.quantity(),
+                        "subtotal", FixturePages.money(line.subtotal())))
+                .collect(Collectors.joining());
+    }
+
+    private String totals(List<Line> lines) {
+        String total = FixturePages.money(Account.total(lines));
+        return pages.render("cart-totals", "subtotal", total, "total", total);
+    }
+
+    private String notification(String type, String message) {
+        return pages.render("notification", "type", type, "message", FixturePages.escape(message));
+    }
+
+    private static String accountLinks(Session session) {
+        return session.customer == null
+                ? "<li><a href=\"/register?returnUrl=%2F\" class=\"ico-register\">Register</a></li>\n"
+                + "<li><a href=\"/login?returnUrl=%2F\" class=\"ico-login\">Log in</a></li>"
+                : "<li><a href=\"/customer/info\" class=\"ico-account\">My account</a></li>\n"
+                + "<li><a href=\"/logout\" class=\"ico-logout\">Log out</a></li>";
+    }
+
+    /**
+     * A return URL on this shop, "/" for anything else.
+     */
+    private static String localUrl(String returnUrl) {
+        return returnUrl.startsWith("/") && !returnUrl.startsWith("//") ? returnUrl : "/";
+    }
+}
@@ -1,53 +1,52 @@
 package tests.shop;
 
+import api.CheckoutPreconditions;
 import base.BaseTest;
 import dataProviders.shop.CheckoutDataProvider;
 import jdk.jfr.Description;
+import models.BillingAddress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
-import org.testng.asserts.SoftAssert;
 import pages.shop.CheckoutPage;
-import pages.shop.ProductDetailPage;
-import pages.shop.ShoppingCartPage;
+import utils.JsonKey;
+
+import java.util.List;
+import java.util.Map;
 
 import static utils.JsonUtils.getValue;
+import static utils.JsonUtils.getValues;
+import static utils.JsonUtils.readJson;
 
 public class CheckoutTest extends BaseTest {
     private static final Logger logger = LoggerFactory.getLogger(CheckoutTest.class);
+    private static final JsonKey BILLING_ADDRESS = JsonKey.compile("billingAddress");
+    private static final JsonKey CARD_TYPE = JsonKey.compile("creditCardInfo.creditCardType");
+    private static final JsonKey CARD_HOLDER_NAME = JsonKey.compile("creditCardInfo.cardholderName");
+    private static final JsonKey CARD_NUMBER = JsonKey.compile("creditCardInfo.cardNumber");
+    private static final JsonKey CARD_EXPIRATION_MONTH = JsonKey.compile("creditCardInfo.expirationMonth");
+    private static final JsonKey CARD_EXPIRATION_YEAR = JsonKey.compile("creditCardInfo.expirationYear");
+    private static final JsonKey CARD_CODE = JsonKey.compile("creditCardInfo.cardCode");
 
     @BeforeMethod
     @Description("Precondition for Checkout Tests: Login-> Add products to cart and navigate to checkout page")
     public void checkoutTestPrecondition() {
-        ProductDetailPage productDetailPage = new ProductDetailPage();
-        ShoppingCartPage shoppingCartPage = new ShoppingCartPage();
-        // Initialize SoftAssert
-        softAssert = new SoftAssert();
-
-        //Step: Add two products to Cart
-        productDetailPage
-                .logIn()
-                .openProductDetailsPageFromHome(getValue("productsTestData.json", "productsTextName.smartPhoneHTC"))
-                .clickOnAddToCartButtonInPDP()
-                .closeBarNotification()
-                .clickOnAddToCartButton(getValue("productsTestData.json", "productsTextName.nokiaLumia"))
-                .closeBarNotification();
-
-        //Step: Navigate to Shopping Cart page -> click on agree to terms -> click on checkout button
-        shoppingCartPage
-                .navigateToShoppingCartPage()
-                .agreeToTerms()
-                .clickOnCheckoutButton();
+        //Step: Login -> add two products to Cart -> open checkout page (over HTTP when precondition.mode=http)
+        CheckoutPreconditions.openCheckoutWithCart(
+                getValue("checkoutTestData.json", "customer.email"),
+                getValue("checkoutTestData.json", "customer.password"),
+                List.of(getValue("productsTestData.json", "productsTextName.smartPhoneHTC"),
+                        getValue("productsTestData.json", "productsTextName.nokiaLumia")));
     }
 
     @AfterMethod
     public void endCheckoutTest() {
         // Assert all soft assertions
-        if (softAssert != null) {
-            softAssert.assertAll();
+        if (softAssert() != null) {
+            softAssert().assertAll();
         }
     }
 
@@ -70,26 +69,18 @@ public class CheckoutTest extends BaseTest {
         CheckoutPage checkoutPage = new CheckoutPage();
 
         // Load billing test data once
-        String firstName = getValue("checkoutTestData.json", "billingAddress.firstName");
-        String lastName = getValue("checkoutTestData.json", "billingAddress.lastName");
-        String email = getValue("checkoutTestData.json", "billingAddress.email");
-        String country = getValue("checkoutTestData.json", "billingAddress.country");
-        String state = getValue("checkoutTestData.json", "billingAddress.stateProvince");
-        String city = getValue("checkoutTestData.json", "billingAddress.city");
-        String address1 = getValue("checkoutTestData.json", "billingAddress.address1");
-        String zip = getValue("checkoutTestData.json", "billingAddress.zipPostalCode");
-        String phone = getValue("checkoutTestData.json", "billingAddress.phoneNumber");
+        BillingAddress billingAddress = readJson("checkoutTestData.json", BILLING_ADDRESS, BillingAddress.class);
 
         logger.info("Testing mandatory field validation for: {}", fieldName);
 
         // Fill all fields first -> Leave one field blank at a time
         checkoutPage
                 .selectToFillNewBillingAddress()
-                .fillBillingAddressDetails(firstName, lastName, email, country, state, city, address1, zip, phone)
+                .fillBillingAddressDetails(billingAddress)
                 .leaveFieldBlank(fieldName)
                 .clickOnAddressContinueButton();
 
-        softAssert.assertTrue(checkoutPage.isValidationMessagePresentInAlert(fieldName));
+        softAssert().assertTrue(checkoutPage.isValidationMessagePresentInAlert(fieldName));
 
     }
 
@@ -98,20 +89,12 @@ public class CheckoutTest extends BaseTest {
     public void testCompleteCheckoutWithCheckMoneyOrder() {
         CheckoutPage checkoutPage = new CheckoutPage();
         // Load billing test data once
-        String firstName = getValue("checkoutTestData.json", "billingAddress.firstName");
-        String lastName = getValue("checkoutTestData.json", "billingAddress.lastName");
-        String email = getValue("checkoutTestData.json", "billingAddress.email");
-        String country = getValue("checkoutTestData.json", "billingAddress.country");
-        String state = getValue("checkoutTestData.json", "billingAddress.stateProvince");
-        String city = getValue("checkoutTestData.json", "billingAddress.city");
-        String address1 = getValue("checkoutTestData.json", "billingAddress.address1");
-        String zip = getValue("checkoutTestData.json", "billingAddress.zipPostalCode");
-        String phone = getValue("checkoutTestData.json", "billingAddress.phoneNumber");
+        BillingAddress billingAddress = readJson("checkoutTestData.json", BILLING_ADDRESS, BillingAddress.class);
 
         //Step: Fill in all mandatory fields and click on continue button
         checkoutPage
                 .selectToFillNewBillingAddress()
-                .fillBillingAddressDetails(firstName, lastName, email, country, state, city, address1, zip, phone)
+                .fillBillingAddressDetails(billingAddress)
                 .clickOnAddressContinueButton()
                 .selectGroundShippingMethod()
                 .clickOnShippingMethodContinueButton()
@@ -136,27 +119,21 @@ public class CheckoutTest extends BaseTest {
     public void testCompleteCheckoutWithCreditCard() {
         CheckoutPage checkoutPage = new CheckoutPage();
         // Load billing test data once
-        String firstName = getValue("checkoutTestData.json", "billingAddress.firstName");
-        String lastName = getValue("checkoutTestData.json", "billingAddress.lastName");
-        String email = getValue("checkoutTestData.json", "billingAddress.email");
-        String country = getValue("checkoutTestData.json", "billingAddress.country");
-        String state = getValue("checkoutTestData.json", "billingAddress.stateProvince");
-        String city = getValue("checkoutTestData.json", "billingAddress.city");
-        String address1 = getValue("checkoutTestData.json", "billingAddress.address1");
-        String zip = getValue("checkoutTestData.json", "billingAddress.zipPostalCode");
-        String phone = getValue("checkoutTestData.json", "billingAddress.phoneNumber");
+        BillingAddress billingAddress = readJson("checkoutTestData.json", BILLING_ADDRESS, BillingAddress.class);
         // Load credit card test data once
-        String cardType = getValue("checkoutTestData.json", "creditCardInfo.creditCardType");
-        String holderName = getValue("checkoutTestData.json", "creditCardInfo.cardholderName");
-        String CardNum = getValue("checkoutTestData.json", "creditCardInfo.cardNumber");
-        String expireMonth = getValue("checkoutTestData.json", "creditCardInfo.expirationMonth");
-        String expireYear = getValue("checkoutTestData.json", "creditCardInfo.expirationYear");
-        String cardCode = getValue("checkoutTestData.json", "creditCardInfo.cardCode");
+        Map<String, String> creditCard = getValues("checkoutTestData.json",
+                CARD_TYPE, CARD_HOLDER_NAME, CARD_NUMBER, CARD_EXPIRATION_MONTH, CARD_EXPIRATION_YEAR, CARD_CODE);
+        String cardType = creditCard.get(CARD_TYPE.path());
+        String holderName = creditCard.get(CARD_HOLDER_NAME.path());
+        String CardNum = creditCard.get(CARD_NUMBER.path());
+        String expireMonth = creditCard.get(CARD_EXPIRATION_MONTH.path());
+        String expireYear = creditCard.get(CARD_EXPIRATION_YEAR.path());
+        String cardCode = creditCard.get(CARD_CODE.path());
 
         //Step: Fill in all mandatory fields and click on continue button
         checkoutPage
                 .selectToFillNewBillingAddress()
-                .fillBillingAddressDetails(firstName, lastName, email, country, state, city, address1, zip, phone)
+                .fillBillingAddressDetails(billingAddress)
                 .clickOnAddressContinueButton()
                 .selectGroundShippingMethod()
                 .clickOnShippingMethodContinueButton()
@@ -1,53 +1,44 @@
 package tests.shop;
 
+import api.CheckoutPreconditions;
 import base.BaseTest;
 import jdk.jfr.Description;
+import models.BillingAddress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
-import org.testng.asserts.SoftAssert;
 import pages.shop.CheckoutPage;
-import pages.shop.ProductDetailPage;
-import pages.shop.ShoppingCartPage;
+import utils.JsonKey;
+
+import java.util.List;
 
 import static utils.JsonUtils.getValue;
+import static utils.JsonUtils.readJson;
 
 public class E2E extends BaseTest {
 
     private static final Logger logger = LoggerFactory.getLogger(CheckoutTest.class);
+    private static final JsonKey BILLING_ADDRESS = JsonKey.compile("billingAddress");
 
     @BeforeMethod
     @Description("Precondition for Checkout Tests: Login-> Add products to cart and navigate to checkout page")
     public void checkoutTestPrecondition() {
-        ProductDetailPage productDetailPage = new ProductDetailPage();
-        ShoppingCartPage shoppingCartPage = new ShoppingCartPage();
-        // Initialize SoftAssert
-        softAssert = new SoftAssert();
-
-        //Step: Add two products to Cart
-        productDetailPage
-                .logIn()
-                .openProductDetailsPageFromHome(getValue("productsTestData.json", "productsTextName.smartPhoneHTC"))
-                .clickOnAddToCartButtonInPDP()
-                .closeBarNotification()
-                .clickOnAddToCartButton(getValue("productsTestData.json", "productsTextName.nokiaLumia"))
-                .closeBarNotification();
-
-        //Step: Navigate to Shopping Cart page -> click on agree to terms -> click on checkout button
-        shoppingCartPage
-                .navigateToShoppingCartPage()
-                .agreeToTerms()
-                .clickOnCheckoutButton();
+        //Step: Login -> add two products to Cart -> open checkout page (over HTTP when precondition.mode=http)
+        CheckoutPreconditions.openCheckoutWithCart(
+                getValue("checkoutTestData.json", "customer.email"),
+                getValue("checkoutTestData.json", "customer.password"),
+                List.of(getValue("productsTestData.json", "productsTextName.smartPhoneHTC"),
+                        getValue("productsTestData.json", "productsTextName.nokiaLumia")));
     }
 
     @AfterMethod
     public void endCheckoutTest() {
         // Assert all soft assertions
-        if (softAssert != null) {
-            softAssert.assertAll();
+        if (softAssert() != null) {
+            softAssert().assertAll();
         }
     }
 
@@ -55,20 +46,12 @@ public class E2E extends BaseTest {
     public void testEnd2EndWithCheckMoneyOrder() {
         CheckoutPage checkoutPage = new CheckoutPage();
         // Load billing test data once
-        String firstName = getValue("checkoutTestData.json", "billingAddress.firstName");
-        String lastName = getValue("checkoutTestData.json", "billingAddress.lastName");
-        String email = getValue("checkoutTestData.json", "billingAddress.email");
-        String country = getValue("checkoutTestData.json", "billingAddress.country");
-        String state = getValue("checkoutTestData.json", "billingAddress.stateProvince");
-        String city = getValue("checkoutTestData.json", "billingAddress.city");
-        String address1 = getValue("checkoutTestData.json", "billingAddress.address1");
-        String zip = getValue("checkoutTestData.json", "billingAddress.zipPostalCode");
-        String phone = getValue("checkoutTestData.json", "billingAddress.phoneNumber");
+        BillingAddress billingAddress = readJson("checkoutTestData.json", BILLING_ADDRESS, BillingAddress.class);
 
         //Step: Fill in all mandatory fields and click on continue button
         checkoutPage
                 .selectToFillNewBillingAddress()
-                .fillBillingAddressDetails(firstName, lastName, email, country, state, city, address1, zip, phone)
+                .fillBillingAddressDetails(billingAddress)
                 .clickOnAddressContinueButton()
                 .selectGroundShippingMethod()
                 .clickOnShippingMethodContinueButton()
@@ -1,6 +1,7 @@
 package tests.shop;
 
 import base.BaseTest;
+import config.ConfigReader;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import pages.shop.RegisterPage;
@@ -10,20 +11,15 @@ import static utils.JsonUtils.getValue;
 
 public class RegisterTest extends BaseTest {
 
-    //TODO : add listener, logs, screenshots, allure report.
-    //TODO : make Email dynamically generated using timestamp.
-
     @Test(priority = 1, description = "Register successfully with valid mandatory and optional data")
     public void registerWithValidDataTC() {
         RegisterPage registerPage = new RegisterPage();
         registerPage.navigateToRegisterPage()
-                .selectGender("male")
-                .enterFirstName(getValue("registerTestData.json", "validRegistration.firstName"))
-                .enterLastName(getValue("registerTestData.json", "validRegistration.lastName"))
-                .enterEmail(getValue("registerTestData.json", "validRegistration.email"))
-                .enterCompany("Test Company")
-                .enterPassword("Test@123")
-                .enterConfirmPassword("Test@123")
+                .fillRegistrationForm("male",
+                        getValue("registerTestData.json", "validRegistration.firstName"),
+                        getValue("registerTestData.json", "validRegistration.lastName"),
+                        uniqueEmail(getValue("registerTestData.json", "validRegistration.email")),
+                        "Test Company", "Test@123", "Test@123")
                 .clickRegisterButton();
 
         Assert.assertTrue(registerPage.isRegistrationSuccessMessageDisplayed(getValue("registerTestData.json", "validRegistration.successMessage")),
@@ -31,7 +27,7 @@ public class RegisterTest extends BaseTest {
 
         registerPage.clickRegisterContinueButton();
 
-        Assert.assertTrue(WaitUtils.waitForUrlToContain("https://demo.nopcommerce.com/", 10),
+        Assert.assertTrue(WaitUtils.waitForUrlToContain(ConfigReader.get("base.url.shop"), 10),
                 "URL did not contain expected text after registration");
     }
 
@@ -55,13 +51,13 @@ public class RegisterTest extends BaseTest {
     public void verifyEmailAlreadyExistsValidationTC() {
         RegisterPage registerPage = new RegisterPage();
         registerPage.navigateToRegisterPage()
-                .selectGender("male")
-                .enterFirstName(getValue("registerTestData.json", "emailAlreadyExists.firstName"))
-                .enterLastName(getValue("registerTestData.json", "emailAlreadyExists.lastName"))
-                .enterEmail(getValue("registerTestData.json", "emailAlreadyExists.email"))
-                .enterCompany("Test Company")
-                .enterPassword(getValue("registerTestData.json", "emailAlreadyExists.password"))
-                .enterConfirmPassword(getValue("registerTestData.json", "emailAlreadyExists.confirmPassword"))
+                .fillRegistrationForm("male",
+                        getValue("registerTestData.json", "emailAlreadyExists.firstName"),
+                        getValue("registerTestData.json", "emailAlreadyExists.lastName"),
+                        getValue("registerTestData.json", "emailAlreadyExists.email"),
+                        "Test Company",
+                        getValue("registerTestData.json", "emailAlreadyExists.password"),
+                        getValue("registerTestData.json", "emailAlreadyExists.confirmPassword"))
                 .clickRegisterButton();
 
         Assert.assertTrue(registerPage.isEmailAlreadyExistsErrorDisplayed(getValue("registerTestData.json", "emailAlreadyExists.existsEmailErrorMessage")),
@@ -168,4 +164,13 @@ public class RegisterTest extends BaseTest {
 
 
     }
+
+    /**
+     * The email with a timestamp added to the local part, e.g. user.valid.1718000000000@example.com, so every run
+     * registers a new customer instead of colliding with earlier runs and the seeded one.
+     */
+    private static String uniqueEmail(String email) {
+        int at = email.indexOf('@');
+        return email.substring(0, at) + "." + System.currentTimeMillis() + email.substring(at);
+    }
 }
@@ -9,7 +9,6 @@ import pages.shop.WishlistPage;
 import static utils.JsonUtils.getValue;
 
 public class WishlistTest extends BaseTest {
-    //TODO : add listener, logs, screenshots, allure report.
     //TODO : Complete flow from Login
 
     @Test(description = "Verify adding product to wishlist")
@@ -0,0 +1,259 @@
+/*
+ * Storefront behaviour of the fixture shop: the parts of nopCommerce's public.common.js, public.ajaxcart.js,
+ * public.onepagecheckout.js and the unobtrusive validation that the page objects rely on, without jQuery.
+ * Requests go through window.fetch at call time so the readiness hooks installed by the tests see them.
+ */
+
+function setLocation(url) {
+    window.location.href = url;
+}
+
+function displayBarNotification(message, messageType) {
+    var container = document.getElementById('bar-notification');
+    var bar = document.createElement('div');
+    bar.className = 'bar-notification ' + messageType;
+    [].concat(message).forEach(function (text) {
+        var content = document.createElement('p');
+        content.className = 'content';
+        content.innerHTML = text;
+        bar.appendChild(content);
+    });
+    var close = document.createElement('span');
+    close.className = 'close';
+    close.title = container.getAttribute('data-close') || 'Close';
+    close.textContent = '×';
+    bar.appendChild(close);
+    container.innerHTML = '';
+    container.appendChild(bar);
+}
+
+var Shop = {
+    post: function (url, form) {
+        return window.fetch(url, {
+            method: 'POST',
+            headers: {'X-Requested-With': 'XMLHttpRequest'},
+            body: new URLSearchParams(form ? new FormData(form) : undefined)
+        }).then(function (response) {
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            return response.json();
+        });
+    },
+
+    show: function (element, visible) {
+        if (element) {
+            element.style.display = visible ? '' : 'none';
+        }
+    }
+};
+
+var AjaxCart = {
+    loadWaiting: false,
+
+    setLoadWaiting: function (display) {
+        this.loadWaiting = display;
+        document.querySelector('.ajax-loading-block-window').style.display = display ? 'block' : 'none';
+    },
+
+    addproducttocart_catalog: function (url) {
+        this.send(url, null);
+    },
+
+    addproducttocart_details: function (url, formSelector) {
+        this.send(url, document.querySelector(formSelector));
+    },
+
+    addproducttocomparelist: function (url) {
+        this.send(url, null);
+    },
+
+    send: function (url, form) {
+        if (this.loadWaiting) {
+            return;
+        }
+        this.setLoadWaiting(true);
+        Shop.post(url, form).then(function (response) {
+            if (response.updatetopcartsectionhtml) {
+                document.querySelector('.header-links .cart-qty').textContent = response.updatetopcartsectionhtml;
+            }
+            if (response.updatetopwishlistsectionhtml) {
+                document.querySelector('.header-links .wishlist-qty').textContent = response.updatetopwishlistsectionhtml;
+            }
+            if (response.redirect) {
+                setLocation(response.redirect);
+                return;
+            }
+            displayBarNotification(response.message, response.success ? 'success' : 'error');
+        }).catch(function (error) {
+            displayBarNotification('Failed to add the product. ' + error.message, 'error');
+        }).finally(function () {
+            AjaxCart.setLoadWaiting(false);
+        });
+    }
+};
+
+var Checkout = {
+    save: function (formId, url, waitId) {
+        var wait = document.getElementById(waitId);
+        Shop.show(wait, true);
+        Shop.post(url, document.getElementById(formId)).then(function (response) {
+            if (response.error) {
+                alert([].concat(response.message).join('\n'));
+                return;
+            }
+            if (response.redirect) {
+                setLocation(response.redirect);
+                return;
+            }
+            Checkout.gotoSection(response.update_section.name, response.update_section.html);
+        }).catch(function (error) {
+            alert('Failed to save the step. ' + error.message);
+        }).finally(function () {
+            Shop.show(wait, false);
+        });
+    },
+
+    gotoSection: function (name, html) {
+        document.querySelectorAll('#checkout-steps .tab-section').forEach(function (section) {
+            section.classList.remove('active');
+            Shop.show(section.querySelector('.step'), false);
+        });
+        var step = document.getElementById('checkout-step-' + name);
+        step.innerHTML = html;
+        Shop.show(step, true);
+        step.parentElement.classList.add('allow', 'active');
+    }
+};
+
+var Billing = {
+    save: function () {
+        Checkout.save('co-billing-form', '/checkout/OpcSaveBilling/', 'billing-please-wait');
+    },
+
+    newAddress: function (isNew) {
+        Shop.show(document.getElementById('billing-new-address-form'), isNew);
+    }
+};
+
+var ShippingMethod = {
+    save: function () {
+        Checkout.save('co-shipping-method-form', '/checkout/OpcSaveShippingMethod/', 'shipping-method-please-wait');
+    }
+};
+
+var PaymentMethod = {
+    save: function () {
+        Checkout.save('co-payment-method-form', '/checkout/OpcSavePaymentMethod/', 'payment-method-please-wait');
+    }
+};
+
+var PaymentInfo = {
+    save: function () {
+        Checkout.save('co-payment-info-form', '/checkout/OpcSavePaymentInfo/', 'payment-info-please-wait');
+    }
+};
+
+var ConfirmOrder = {
+    save: function () {
+        Checkout.save('co-confirm-order-form', '/checkout/OpcConfirmOrder/', 'confirm-order-please-wait');
+    }
+};
+
+var Validation = {
+    // Message of the first failing rule of a data-val input, '' when valid
+    check: function (input) {
+        var value = input.value.trim();
+        var data = input.dataset;
+        if (!value) {
+            return data.valRequired || '';
+        }
+        if (data.valEmail && !/^[^@\s]+@[^@\s]+\.[^@\s]+$/.test(value)) {
+            return data.valEmail;
+        }
+        if (data.valLength && (value.length < Number(data.valLengthMin || 0) || value.length > Number(data.valLengthMax || Infinity))) {
+            return data.valLength;
+        }
+        if (data.valEqualtoOther && input.form.elements[data.valEqualtoOther].value !== input.value) {
+            return data.valEqualto;
+        }
+        return '';
+    },
+
+    show: function (input, message) {
+        var holder = input.form.querySelector('[data-valmsg-for="' + input.name + '"]');
+        holder.className = message ? 'field-validation-error' : 'field-validation-valid';
+        holder.innerHTML = '';
+        if (message) {
+            var error = document.createElement('span');
+            error.id = input.id + '-error';
+            error.textContent = message;
+            holder.appendChild(error);
+        }
+        input.dataset.validated = 'true';
+        return !message;
+    },
+
+    validate: function (form) {
+        var valid = true;
+        form.querySelectorAll('[data-val="true"]').forEach(function (input) {
+            valid = Validation.show(input, Validation.check(input)) && valid;
+        });
+        return valid;
+    }
+};
+
+document.addEventListener('click', function (event) {
+    var target = event.target;
+    if (target.matches('.bar-notification .close')) {
+        target.parentElement.remove();
+    } else if (target.matches('.product-quantity .quantity')) {
+        var input = target.parentElement.querySelector('input');
+        var quantity = parseInt(input.value, 10) || 1;
+        input.value = Math.max(1, quantity + (target.classList.contains('up') ? 1 : -1));
+        target.closest('form').requestSubmit(target.closest('form').querySelector('.update-cart-button'));
+    }
+});
+
+document.addEventListener('change', function (event) {
+    var target = event.target;
+    if (target.matches('[data-trigger="country-select"]')) {
+        var states = document.querySelector(target.dataset.stateprovince);
+        var loading = document.querySelector(target.dataset.loading);
+        Shop.show(loading, true);
+        window.fetch('/country/getstatesbycountryid?countryId=' + encodeURIComponent(target.value) + '&addSelectStateItem=true', {
+            headers: {'X-Requested-With': 'XMLHttpRequest'}
+        }).then(function (response) {
+            return response.json();
+        }).then(function (items) {
+            states.innerHTML = '';
+            items.forEach(function (item) {
+                states.appendChild(new Option(item.name, item.id));
+            });
+        }).finally(function () {
+            Shop.show(loading, false);
+        });
+    } else if (target.id === 'billing-address-select') {
+        Billing.newAddress(!target.value);
+    }
+});
+
+document.addEventListener('focusout', function (event) {
+    var input = event.target;
+    if (input.matches && input.matches('[data-val="true"]') && (input.value || input.dataset.validated)) {
+        Validation.show(input, Validation.check(input));
+    }
+});
+
+document.addEventListener('submit', function (event) {
+    var form = event.target;
+    if (form.hasAttribute('data-validate') && !Validation.validate(form)) {
+        event.preventDefault();
+        return;
+    }
+    var terms = form.querySelector('#termsofservice');
+    if (terms && event.submitter && event.submitter.id === 'checkout' && !terms.checked) {
+        event.preventDefault();
+        Shop.show(document.getElementById('terms-of-service-warning-box'), true);
+    }
+});